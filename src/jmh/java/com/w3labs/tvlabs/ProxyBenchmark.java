@@ -0,0 +1,97 @@
+package com.w3labs.tvlabs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Vazão do /proxy (ProxyService) contra um upstream local que devolve o scoreboard gravado.
+ * - cached: acerto no ProxyCache (caso comum com TTL por rota)
+ * - miss: cache com TTL zero, toda chamada vai ao upstream e passa pelo cache
+ * - stream: repasse direto com buffer fixo, sem cache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ProxyBenchmark {
+
+	@Param({ "cached", "miss", "stream" })
+	public String mode;
+
+	private HttpServer upstream;
+	private ExecutorService upstreamThreads;
+	private ProxyService proxy;
+	private String url;
+
+	@Setup
+	public void start() throws IOException {
+		byte[] body;
+		try (InputStream in = ProxyBenchmark.class.getResourceAsStream("/espn/scoreboard.json")) {
+			body = in.readAllBytes();
+		}
+		upstream = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		upstream.createContext("/", exchange -> {
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		upstreamThreads = Executors.newVirtualThreadPerTaskExecutor();
+		upstream.setExecutor(upstreamThreads);
+		upstream.start();
+		url = "http://127.0.0.1:" + upstream.getAddress().getPort() + "/apis/site/v2/sports/soccer/bra.1/scoreboard";
+
+		MockEnvironment env = new MockEnvironment().withProperty("tvlabs.http.proxy.max-per-host", "64");
+		OutboundHttp http = new OutboundHttp(env, new Metrics());
+		Duration ttl = "miss".equals(mode) ? Duration.ZERO : Duration.ofMinutes(1);
+		ProxyCache cache = new ProxyCache(64L * 1024 * 1024, ttl, ttl, List.of());
+		proxy = new ProxyService(http.pool("proxy").restTemplate(), http, cache,
+				"stream".equals(mode) ? "stream" : "cached", 16_384);
+	}
+
+	@TearDown
+	public void stop() {
+		upstream.stop(0);
+		upstreamThreads.close();
+	}
+
+	@Benchmark
+	public int proxy() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/proxy");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		proxy.serve(url, request, response);
+		return response.getContentAsByteArray().length;
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.w3labs.tvlabs;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Busca unificada (/search) sobre o índice de trigramas com 10k a 1M eventos.
+ * O LIKE '%q%' dos repositórios saiu do caminho da requisição; quem responde é o SearchIndex.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class SearchIndexBenchmark {
+
+	private static final String[] TEAMS = { "Flamengo", "Palmeiras", "Corinthians", "São Paulo", "Grêmio",
+			"Internacional", "Atlético Mineiro", "Cruzeiro", "Botafogo", "Fluminense", "Real Madrid", "Barcelona",
+			"Manchester City", "Liverpool", "Bayern", "Juventus", "Lakers", "Celtics", "Yankees", "Dodgers" };
+	private static final String[] CATEGORIES = { "Futebol", "Basquete", "Futebol Americano", "Beisebol", "Hóquei" };
+
+	@Param({ "10000", "100000", "1000000" })
+	public int rows;
+
+	@Param({ "flamengo", "sao paulo x", "rodada 42" })
+	public String query;
+
+	private SearchIndex index;
+
+	@Setup
+	public void setup() {
+		index = new SearchIndex(null);
+
+		List<Channel> channels = new ArrayList<>();
+		for (int i = 0; i < 1_000; i++) {
+			channels.add(new Channel("canal-" + i, "Canal " + TEAMS[i % TEAMS.length] + " " + i, "Assista ao vivo.",
+					CATEGORIES[i % CATEGORIES.length], null, null, true));
+		}
+		ChannelCatalog.Snapshot empty = ChannelCatalog.Snapshot.build(0, List.of());
+		index.onCatalogChanged(new ChannelCatalogChanged(empty, ChannelCatalog.Snapshot.build(1, channels)));
+
+		List<SportEvent> events = new ArrayList<>(rows);
+		LocalDateTime start = LocalDateTime.of(2025, 1, 1, 16, 0);
+		for (int i = 0; i < rows; i++) {
+			String home = TEAMS[i % TEAMS.length];
+			String away = TEAMS[(i * 7 + 3) % TEAMS.length];
+			events.add(new SportEvent("ev-" + i, home + " x " + away, "Rodada " + (i % 38 + 1),
+					CATEGORIES[i % CATEGORIES.length], null, start.plusHours(i % 5_000), start.plusHours(i % 5_000 + 2),
+					"upcoming"));
+		}
+		index.onEventsChanged(new SportEventsChanged(events));
+	}
+
+	@Benchmark
+	public int searchEvents() {
+		return index.searchEvents(query, 20, 0).total();
+	}
+
+	@Benchmark
+	public int searchChannels() {
+		return index.searchChannels(query, 20, 0).total();
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.w3labs.tvlabs;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serialização do ApiResponse de /channels e /sports (entidade completa e projeção ?fields=).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@Param({ "50", "200", "1000" })
+	public int size;
+
+	private final ObjectMapper mapper = JsonMapper.builder().build();
+	private List<Channel> channels;
+	private List<SportEvent> events;
+
+	@Setup
+	public void setup() {
+		channels = new ArrayList<>(size);
+		events = new ArrayList<>(size);
+		LocalDateTime start = LocalDateTime.of(2025, 8, 25, 20, 0);
+		for (int i = 0; i < size; i++) {
+			channels.add(new Channel("canal-" + i, "Canal " + i, "Assista Canal " + i + " ao vivo.", "Esportes",
+					"https://ui-avatars.com/api/?name=Canal+" + i, "https://rdcanais.top/canal-" + i, true));
+			SportEvent event = new SportEvent("ev-" + i, "Time " + i + " vs Time " + (i + 1), "Rodada " + i, "Futebol",
+					"https://placehold.co/600x400?text=Futebol", start.plusHours(i), start.plusHours(i + 2), "upcoming");
+			event.getEmbeds().add(new Embed("YouTube", "HD", "https://youtube.com/embed/" + i));
+			event.getEmbeds().add(new Embed("Dailymotion", "FullHD", "https://dailymotion.com/embed/" + i));
+			events.add(event);
+		}
+	}
+
+	@Benchmark
+	public byte[] channels() {
+		return mapper.writeValueAsBytes(new ApiResponse<>(true, channels, channels.size()));
+	}
+
+	@Benchmark
+	public byte[] channelsProjected() {
+		List<?> data = FieldProjection.CHANNELS.apply(channels, "id,name,category,logo_url,embed_url");
+		return mapper.writeValueAsBytes(new ApiResponse<>(true, data, data.size()));
+	}
+
+	@Benchmark
+	public byte[] sports() {
+		return mapper.writeValueAsBytes(new ApiResponse<>(true, events, events.size()));
+	}
+
+	@Benchmark
+	public byte[] sportsProjected() {
+		List<?> data = FieldProjection.SPORT_EVENTS.apply(events, "id,title,start_time,status");
+		return mapper.writeValueAsBytes(new ApiResponse<>(true, data, data.size()));
+	}
+
+}
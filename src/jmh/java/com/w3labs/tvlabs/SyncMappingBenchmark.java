@@ -0,0 +1,81 @@
+package com.w3labs.tvlabs;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Caminho do sync com o scoreboard gravado em src/test/resources/espn/scoreboard.json:
+ * parser streaming, ScoreService.mapToSportEvent e os dois juntos. parseThroughput dá a vazão
+ * do parser em jogos/s (meta: 10 mil); com -prof gc, gc.alloc.rate.norm dá os bytes por jogo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SyncMappingBenchmark {
+
+	// Jogos em scoreboard.json; conferido no setup para a vazão por jogo não mentir
+	private static final int FIXTURE_GAMES = 10;
+
+	private byte[] payload;
+	private EspnScoreboardParser parser;
+	private List<EspnGame> games;
+
+	@Setup
+	public void setup() throws IOException {
+		try (InputStream in = SyncMappingBenchmark.class.getResourceAsStream("/espn/scoreboard.json")) {
+			payload = in.readAllBytes();
+		}
+		parser = new EspnScoreboardParser(JsonMapper.builder().build());
+		games = parser.parse(new ByteArrayInputStream(payload));
+		if (games.size() != FIXTURE_GAMES) {
+			throw new IllegalStateException("scoreboard.json tem " + games.size() + " jogos, esperado " + FIXTURE_GAMES);
+		}
+	}
+
+	@Benchmark
+	public int parse() throws IOException {
+		return parser.parse(new ByteArrayInputStream(payload)).size();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	@OperationsPerInvocation(FIXTURE_GAMES)
+	public int parseThroughput() throws IOException {
+		return parser.parse(new ByteArrayInputStream(payload)).size();
+	}
+
+	@Benchmark
+	public void map(Blackhole bh) {
+		for (EspnGame game : games) bh.consume(ScoreService.mapToSportEvent(game, "Futebol"));
+	}
+
+	@Benchmark
+	public void parseAndMap(Blackhole bh) throws IOException {
+		for (EspnGame game : parser.parse(new ByteArrayInputStream(payload))) {
+			bh.consume(ScoreService.mapToSportEvent(game, "Futebol"));
+		}
+	}
+
+}
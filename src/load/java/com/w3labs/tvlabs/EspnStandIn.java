@@ -0,0 +1,149 @@
+package com.w3labs.tvlabs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Substituto local da API da ESPN para teste de carga. Repete os fixtures gravados em
+ * src/test/resources/espn (scoreboard, summary, standings) com latência, jitter e falhas
+ * configuráveis, e conta as chamadas por rota em GET /__stats.
+ *
+ * Uso: mvn -P load test-compile exec:java@espn-stand-in -Dexec.args="--port=8099 --latency=80ms --jitter=40ms --error-rate=0.02"
+ * A aplicação aponta para ele com --tvlabs.espn.base-url=http://localhost:8099
+ */
+public class EspnStandIn implements AutoCloseable {
+
+	private final HttpServer server;
+	private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+	private final Duration latency;
+	private final Duration jitter;
+	private final double errorRate;
+	private final double timeoutRate;
+	private final Map<String, byte[]> fixtures = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+	private final LongAdder injectedErrors = new LongAdder();
+
+	public EspnStandIn(int port, Duration latency, Duration jitter, double errorRate, double timeoutRate) throws IOException {
+		this.latency = latency;
+		this.jitter = jitter;
+		this.errorRate = errorRate;
+		this.timeoutRate = timeoutRate;
+		for (String name : new String[] { "scoreboard", "summary", "standings" }) {
+			try (InputStream in = EspnStandIn.class.getResourceAsStream("/espn/" + name + ".json")) {
+				fixtures.put(name, in.readAllBytes());
+			}
+		}
+		server = HttpServer.create(new InetSocketAddress(port), 0);
+		server.setExecutor(threads);
+		server.createContext("/__stats", this::stats);
+		server.createContext("/", this::replay);
+		server.start();
+	}
+
+	public int port() {
+		return server.getAddress().getPort();
+	}
+
+	public Map<String, Long> calls() {
+		Map<String, Long> snapshot = new TreeMap<>();
+		calls.forEach((route, count) -> snapshot.put(route, count.sum()));
+		return snapshot;
+	}
+
+	private void replay(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		String route = path.endsWith("/scoreboard") ? "scoreboard"
+				: path.endsWith("/summary") ? "summary"
+				: path.contains("/standings") ? "standings"
+				: null;
+		calls.computeIfAbsent(route != null ? route : "not_found", r -> new LongAdder()).increment();
+
+		try (exchange) {
+			sleep(delay());
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			if (route == null) {
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+			if (random.nextDouble() < timeoutRate) {
+				// Segura a conexão além dos timeouts do cliente
+				injectedErrors.increment();
+				sleep(Duration.ofSeconds(30));
+				return;
+			}
+			if (random.nextDouble() < errorRate) {
+				injectedErrors.increment();
+				exchange.sendResponseHeaders(503, -1);
+				return;
+			}
+			byte[] body = fixtures.get(route);
+			exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		}
+	}
+
+	private void stats(HttpExchange exchange) throws IOException {
+		StringBuilder json = new StringBuilder("{\"calls\":{");
+		calls().forEach((route, count) -> json.append('"').append(route).append("\":").append(count).append(','));
+		if (json.charAt(json.length() - 1) == ',') json.setLength(json.length() - 1);
+		json.append("},\"injected_errors\":").append(injectedErrors.sum()).append('}');
+		byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+		try (exchange) {
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+		}
+	}
+
+	private Duration delay() {
+		long spread = jitter.toMillis();
+		long extra = spread > 0 ? ThreadLocalRandom.current().nextLong(-spread, spread + 1) : 0;
+		return Duration.ofMillis(Math.max(0, latency.toMillis() + extra));
+	}
+
+	private static void sleep(Duration duration) {
+		try {
+			Thread.sleep(duration);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		threads.close();
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = LoadTest.options(args);
+		EspnStandIn standIn = new EspnStandIn(
+				Integer.parseInt(options.getOrDefault("port", "8099")),
+				DurationStyle.detectAndParse(options.getOrDefault("latency", "80ms")),
+				DurationStyle.detectAndParse(options.getOrDefault("jitter", "40ms")),
+				Double.parseDouble(options.getOrDefault("error-rate", "0")),
+				Double.parseDouble(options.getOrDefault("timeout-rate", "0")));
+		System.out.println("ESPN stand-in em http://localhost:" + standIn.port() + " (stats em /__stats)");
+		Thread.currentThread().join();
+	}
+
+}
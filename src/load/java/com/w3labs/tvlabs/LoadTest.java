@@ -0,0 +1,248 @@
+package com.w3labs.tvlabs;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Gera carga de N clientes do TVLabs.html contra uma instância já rodando:
+ * - ao abrir: /api/config/sports e a grade de canais (/channels paginado, com fields)
+ * - a cada poll-interval (20s, como o frontend): /scores/changes com o cursor do próprio cliente
+ * - a cada scorer-interval: página de artilharia (/leaders) + classificação via /proxy
+ * Reporta por rota p50/p99/máximo, vazão e erros, e quantas chamadas chegaram ao upstream
+ * (contadores do EspnStandIn). O resumo sai em JSON no stdout e em target/load-results.json.
+ *
+ * Uso: mvn -P load test-compile exec:java@load-test -Dexec.args="--target=http://localhost:8080 --espn=http://localhost:8099 --clients=500 --duration=2m"
+ */
+public class LoadTest {
+
+	private static final ObjectMapper MAPPER = JsonMapper.builder().build();
+
+	private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+	private final Map<String, Recorder> routes = new ConcurrentHashMap<>();
+	private final String target;
+	private final String espn;
+	private final String league;
+	private final Duration pollInterval;
+	private final Duration scorerInterval;
+
+	LoadTest(String target, String espn, String league, Duration pollInterval, Duration scorerInterval) {
+		this.target = target;
+		this.espn = espn;
+		this.league = league;
+		this.pollInterval = pollInterval;
+		this.scorerInterval = scorerInterval;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = options(args);
+		int clients = Integer.parseInt(options.getOrDefault("clients", "100"));
+		Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "60s"));
+		Duration rampUp = DurationStyle.detectAndParse(options.getOrDefault("ramp-up", "10s"));
+		LoadTest test = new LoadTest(
+				options.getOrDefault("target", "http://localhost:8080"),
+				options.get("espn"),
+				options.getOrDefault("league", "soccer/bra.1"),
+				DurationStyle.detectAndParse(options.getOrDefault("poll-interval", "20s")),
+				DurationStyle.detectAndParse(options.getOrDefault("scorer-interval", "60s")));
+
+		Map<String, Long> upstreamBefore = test.upstreamCalls();
+		long start = System.nanoTime();
+		long deadline = start + duration.toNanos();
+		try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < clients; i++) {
+				long offset = rampUp.toNanos() * i / Math.max(clients, 1);
+				pool.submit(() -> test.client(start + offset, deadline));
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("clients", clients);
+		report.put("duration_s", Math.round(seconds));
+		long total = 0;
+		Map<String, Object> byRoute = new TreeMap<>();
+		for (Map.Entry<String, Recorder> entry : test.routes.entrySet()) {
+			byRoute.put(entry.getKey(), entry.getValue().summary(seconds));
+			total += entry.getValue().count();
+		}
+		report.put("throughput_rps", Math.round(total / seconds * 10) / 10.0);
+		report.put("routes", byRoute);
+		Map<String, Long> upstreamAfter = test.upstreamCalls();
+		if (upstreamAfter != null) {
+			Map<String, Long> upstream = new TreeMap<>();
+			upstreamAfter.forEach((route, count) -> upstream.put(route, count - upstreamBefore.getOrDefault(route, 0L)));
+			report.put("upstream_calls", upstream);
+		}
+
+		String json = MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(report);
+		System.out.println(json);
+		Path out = Path.of("target", "load-results.json");
+		Files.createDirectories(out.getParent());
+		Files.writeString(out, json);
+	}
+
+	// Um cliente: abre a página e fica no ciclo de polling até o fim do teste
+	private void client(long startAt, long deadline) {
+		pause(startAt - System.nanoTime());
+		get("config", "/api/config/sports");
+		String cursor = null;
+		do {
+			String page = "/channels?limit=200&fields=id,name,category,logo_url,embed_url" + (cursor != null ? "&cursor=" + cursor : "");
+			JsonNode body = get("channels", page);
+			cursor = body != null && body.hasNonNull("next_cursor") ? body.get("next_cursor").asString() : null;
+		} while (cursor != null);
+
+		String sport = league.substring(0, league.indexOf('/'));
+		String slug = league.substring(league.indexOf('/') + 1);
+		long version = 0;
+		long nextPoll = System.nanoTime();
+		long nextScorers = System.nanoTime() + jittered(scorerInterval);
+		while (System.nanoTime() < deadline) {
+			if (System.nanoTime() >= nextScorers) {
+				get("leaders", "/leaders/" + league + "?limit=50");
+				if (espn != null) {
+					String standings = espn + "/apis/v2/sports/" + sport + "/" + slug + "/standings?lang=pt";
+					get("proxy", "/proxy?url=" + URLEncoder.encode(standings, StandardCharsets.UTF_8));
+				}
+				nextScorers += scorerInterval.toNanos();
+			}
+			JsonNode changes = get("scores_changes", "/scores/changes?league=" + URLEncoder.encode(league, StandardCharsets.UTF_8) + "&since=" + version);
+			if (changes != null && changes.has("version")) version = changes.get("version").asLong();
+			nextPoll += pollInterval.toNanos();
+			pause(Math.min(nextPoll, deadline) - System.nanoTime());
+		}
+	}
+
+	private JsonNode get(String route, String path) {
+		Recorder recorder = routes.computeIfAbsent(route, r -> new Recorder());
+		HttpRequest request = HttpRequest.newBuilder(URI.create(target + path)).timeout(Duration.ofSeconds(30)).GET().build();
+		long start = System.nanoTime();
+		try {
+			HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+			boolean ok = response.statusCode() < 400;
+			recorder.record(System.nanoTime() - start, ok);
+			if (response.statusCode() != 200 || response.body().length == 0) return null;
+			return MAPPER.readTree(response.body());
+		} catch (IOException e) {
+			recorder.record(System.nanoTime() - start, false);
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (RuntimeException e) {
+			return null; // Corpo não-JSON (ex.: proxy): a latência já foi registrada
+		}
+	}
+
+	// Contadores do stand-in; null quando não há upstream local para consultar
+	private Map<String, Long> upstreamCalls() {
+		if (espn == null) return null;
+		try {
+			HttpResponse<byte[]> response = http.send(HttpRequest.newBuilder(URI.create(espn + "/__stats")).GET().build(),
+					HttpResponse.BodyHandlers.ofByteArray());
+			Map<String, Long> calls = new HashMap<>();
+			MAPPER.readTree(response.body()).get("calls").properties().forEach(e -> calls.put(e.getKey(), e.getValue().asLong()));
+			return calls;
+		} catch (IOException | RuntimeException e) {
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	private static long jittered(Duration interval) {
+		return ThreadLocalRandom.current().nextLong(interval.toNanos() + 1);
+	}
+
+	private static void pause(long nanos) {
+		if (nanos <= 0) return;
+		try {
+			Thread.sleep(Duration.ofNanos(nanos));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	static Map<String, String> options(String[] args) {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--")) continue;
+			int eq = arg.indexOf('=');
+			options.put(eq > 0 ? arg.substring(2, eq) : arg.substring(2), eq > 0 ? arg.substring(eq + 1) : "true");
+		}
+		return options;
+	}
+
+	// Latências de uma rota (todas guardadas; percentis exatos no fim do teste)
+	private static class Recorder {
+		private final ReentrantLock lock = new ReentrantLock();
+		private long[] samples = new long[1024];
+		private int count;
+		private long errors;
+
+		void record(long nanos, boolean ok) {
+			lock.lock();
+			try {
+				if (count == samples.length) samples = Arrays.copyOf(samples, count * 2);
+				samples[count++] = nanos;
+				if (!ok) errors++;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		long count() {
+			return count;
+		}
+
+		Map<String, Object> summary(double seconds) {
+			lock.lock();
+			try {
+				long[] sorted = Arrays.copyOf(samples, count);
+				Arrays.sort(sorted);
+				Map<String, Object> summary = new LinkedHashMap<>();
+				summary.put("requests", count);
+				summary.put("errors", errors);
+				summary.put("rps", Math.round(count / seconds * 10) / 10.0);
+				summary.put("p50_ms", percentile(sorted, 0.50));
+				summary.put("p99_ms", percentile(sorted, 0.99));
+				summary.put("max_ms", percentile(sorted, 1.0));
+				return summary;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		private static double percentile(long[] sorted, double p) {
+			if (sorted.length == 0) return 0;
+			int index = (int) Math.ceil(p * sorted.length) - 1;
+			return Math.round(sorted[Math.max(index, 0)] / 1e4) / 100.0;
+		}
+	}
+
+}
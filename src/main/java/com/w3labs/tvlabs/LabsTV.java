@@ -1,49 +1,179 @@
 package com.w3labs.tvlabs;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.SocketTimeoutException;
 import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.management.ThreadMXBean;
 
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Repository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
 import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Embeddable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * LabsTV Backend
@@ -74,18 +204,29 @@ public class LabsTV {
         return new CorsFilter(source);
     }
 
+    // Cliente das sincronizações com a ESPN (ScoreService)
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5000); // 5 segundos para conectar
-        factory.setReadTimeout(5000);    // 5 segundos para ler dados
-        return new RestTemplate(factory);
+    @Primary
+    public RestTemplate restTemplate(OutboundHttp outboundHttp) {
+        return outboundHttp.pool("sync").restTemplate();
+    }
+
+    // Cliente do /proxy (timeouts e limites próprios, isolado do sync)
+    @Bean
+    public RestTemplate proxyRestTemplate(OutboundHttp outboundHttp) {
+        return outboundHttp.pool("proxy").restTemplate();
+    }
+
+    // Conta os comandos SQL por requisição para /metrics (ver StatementCounter)
+    @Bean
+    public HibernatePropertiesCustomizer statementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
     }
 
     // --- CARGA DE DADOS INICIAL (MOCK) ---
     @Bean
     @SuppressWarnings("unused")
-    CommandLineRunner initData(ChannelRepository channelRepo, ScoreService scoreService) {
+    CommandLineRunner initData(ChannelCatalog channelCatalog, ScoreService scoreService) {
         return args -> {
             // 1. Carga de Canais (Lista Completa)
             List<Channel> channels = new ArrayList<>();
@@ -231,7 +372,7 @@ public class LabsTV {
                 channels.add(new Channel(id, name, "Assista " + name + " ao vivo.", cat, logo, embed, true));
             }
 
-            channelRepo.saveAll(channels);
+            channelCatalog.saveAll(channels);
 
             // 2. Evento Mock (Spec Request)
             SportEvent mockEvent = new SportEvent(
@@ -302,7 +443,11 @@ class Channel {
 }
 
 @Entity
-@Table(name = "sport_events")
+@Table(name = "sport_events", indexes = {
+        // Listagem filtrada (/sports?status=&category=) já sai na ordem do cursor
+        @Index(name = "idx_sport_events_status_category_start", columnList = "status, category, start_time"),
+        @Index(name = "idx_sport_events_start", columnList = "start_time, id")
+})
 class SportEvent {
     @Id
     private String id;
@@ -314,6 +459,7 @@ class SportEvent {
     // Formatação de data específica para bater com o JSON da Spec: "2025-08-25 20:00:00"
     @JsonProperty("start_time")
     @JsonFormat(pattern="yyyy-MM-dd HH:mm:ss")
+    @Column(name = "start_time", nullable = false) // Chave do cursor das listagens
     private LocalDateTime startTime;
     
     @JsonProperty("end_time")
@@ -322,8 +468,20 @@ class SportEvent {
     
     private String status; // live, upcoming, ended
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    // Liga de origem no sync da ESPN ("sport/slug"); nulo para eventos cadastrados manualmente
+    @JsonIgnore
+    private String league;
+
+    // Hash do conteúdo sincronizado (sem embeds), usado para pular eventos inalterados no sync
+    @JsonIgnore
+    @Column(name = "content_hash", length = 32)
+    private String contentHash;
+
+    // LAZY: listagens sem embeds não tocam event_embeds; quem precisa carrega em bloco
+    // (JOIN FETCH / @EntityGraph no repositório). @BatchSize cobre acessos avulsos.
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "event_embeds", joinColumns = @JoinColumn(name = "event_id"))
+    @BatchSize(size = 200)
     private List<Embed> embeds = new ArrayList<>();
 
     public SportEvent() {}
@@ -348,6 +506,34 @@ class SportEvent {
     public List<Embed> getEmbeds() { return embeds; }
     public LocalDateTime getStartTime() { return startTime; }
     public LocalDateTime getEndTime() { return endTime; }
+    public String getLeague() { return league; }
+    public String getContentHash() { return contentHash; }
+
+    void assignLeague(String league) { this.league = league; }
+
+    @PrePersist
+    void initContentHash() {
+        if (contentHash == null) contentHash = computeContentHash();
+    }
+
+    // Copia os campos sincronizados de outro evento (mantém os embeds já cadastrados)
+    void updateFrom(SportEvent other) {
+        this.title = other.title;
+        this.description = other.description;
+        this.category = other.category;
+        this.poster = other.poster;
+        this.startTime = other.startTime;
+        this.endTime = other.endTime;
+        this.status = other.status;
+        this.league = other.league;
+        this.contentHash = other.computeContentHash();
+    }
+
+    String computeContentHash() {
+        String content = String.join("\u0001", title, description, category, poster,
+                String.valueOf(startTime), String.valueOf(endTime), status, String.valueOf(league));
+        return DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+    }
 }
 
 @Embeddable
@@ -370,6 +556,94 @@ class Embed {
     public String getEmbedUrl() { return embedUrl; }
 }
 
+// Total de gols de um atleta em uma liga (id = "sport/slug:athleteId")
+@Entity
+@Table(name = "scorer_totals")
+class ScorerTotal {
+    @Id
+    private String id;
+    private String league;
+    private long athleteId;
+    private String name;
+    private String headshot;
+    private String team;
+    private int goals;
+
+    public ScorerTotal() {}
+    public ScorerTotal(String league, long athleteId, String name, String headshot, String team, int goals) {
+        this.id = league + ":" + athleteId;
+        this.league = league;
+        this.athleteId = athleteId;
+        this.name = name;
+        this.headshot = headshot;
+        this.team = team;
+        this.goals = goals;
+    }
+
+    public String getId() { return id; }
+    public String getLeague() { return league; }
+    public long getAthleteId() { return athleteId; }
+    public String getName() { return name; }
+    public String getHeadshot() { return headshot; }
+    public String getTeam() { return team; }
+    public int getGoals() { return goals; }
+}
+
+// Evento encerrado arquivado pela retenção: só o necessário para histórico (sem descrição, pôster e embeds)
+@Entity
+@Table(name = "sport_events_history")
+class ArchivedEvent {
+    @Id
+    private String id;
+    private String title;
+    private String category;
+    private String league;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Instant archivedAt;
+
+    public ArchivedEvent() {}
+    public ArchivedEvent(String id, String title, String category, String league, LocalDateTime startTime, LocalDateTime endTime) {
+        this.id = id;
+        this.title = title;
+        this.category = category;
+        this.league = league;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public String getId() { return id; }
+    public String getTitle() { return title; }
+    public String getCategory() { return category; }
+    public String getLeague() { return league; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public LocalDateTime getEndTime() { return endTime; }
+    public Instant getArchivedAt() { return archivedAt; }
+
+    void markArchived(Instant at) { this.archivedAt = at; }
+}
+
+// Jogo encerrado cujo resumo já entrou na artilharia (cada jogo é somado uma única vez)
+@Entity
+@Table(name = "ingested_games")
+class IngestedGame {
+    @Id
+    private String eventId;
+    private String league;
+    private Instant ingestedAt;
+
+    public IngestedGame() {}
+    public IngestedGame(String eventId, String league, Instant ingestedAt) {
+        this.eventId = eventId;
+        this.league = league;
+        this.ingestedAt = ingestedAt;
+    }
+
+    public String getEventId() { return eventId; }
+    public String getLeague() { return league; }
+    public Instant getIngestedAt() { return ingestedAt; }
+}
+
 // ================= DTOs (Objetos de Resposta da API) =================
 
 // Wrapper genérico { "success": true, "data": ... }
@@ -379,6 +653,8 @@ class ApiResponse<T> {
     public T data;
     public Integer total; // Usado em listas quando necessário
     public SearchMeta meta; // Usado na busca
+    @JsonProperty("next_cursor")
+    public String nextCursor; // Listagens paginadas: ausente na última página
 
     public ApiResponse(boolean success, T data) {
         this.success = success;
@@ -391,6 +667,11 @@ class ApiResponse<T> {
         this.total = total;
     }
     
+    public ApiResponse(boolean success, T data, int total, String nextCursor) {
+        this(success, data, total);
+        this.nextCursor = nextCursor;
+    }
+
     public ApiResponse(boolean success, T data, SearchMeta meta) {
         this.success = success;
         this.data = data;
@@ -449,259 +730,4419 @@ interface ChannelRepository extends JpaRepository<Channel, String> {
 
 @Repository
 interface SportEventRepository extends JpaRepository<SportEvent, String> {
-    List<SportEvent> findByCategoryIgnoreCase(String category);
-    List<SportEvent> findByStatusIgnoreCase(String status);
-    List<SportEvent> findByCategoryIgnoreCaseAndStatusIgnoreCase(String category, String status);
 
     @Query("SELECT DISTINCT e.category FROM SportEvent e")
     List<String> findDistinctCategories();
 
-    @Query("SELECT e FROM SportEvent e WHERE LOWER(e.title) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(e.description) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(e.category) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<SportEvent> search(String query);
+    @Query("SELECT COUNT(e) FROM SportEvent e WHERE e.league = :league AND e.status = 'live'")
+    long countLive(String league);
+
+    @Query("SELECT MIN(e.startTime) FROM SportEvent e WHERE e.league = :league AND e.status = 'upcoming' AND e.startTime >= :from")
+    LocalDateTime findNextStart(String league, LocalDateTime from);
+
+    @Query("SELECT e.title, e.status FROM SportEvent e")
+    List<Object[]> findTitlesAndStatus();
+
+    @Query("SELECT e.id, e.contentHash FROM SportEvent e WHERE e.id IN :ids")
+    List<Object[]> findContentHashes(Collection<String> ids);
+
+    // Lote da retenção já na forma compacta, sem carregar a entidade nem os embeds
+    @Query("SELECT new com.w3labs.tvlabs.ArchivedEvent(e.id, e.title, e.category, e.league, e.startTime, e.endTime) "
+            + "FROM SportEvent e WHERE e.status = 'ended' AND e.endTime < :cutoff ORDER BY e.endTime, e.id")
+    List<ArchivedEvent> findArchivable(LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM event_embeds WHERE event_id IN :ids", nativeQuery = true)
+    int deleteEmbeds(Collection<String> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM sport_events WHERE id IN :ids", nativeQuery = true)
+    int deleteByIds(Collection<String> ids);
+
+    // Detalhe (/sports/{id}): evento + embeds numa única consulta
+    @EntityGraph(attributePaths = "embeds")
+    Optional<SportEvent> findWithEmbedsById(String id);
+
+    // Carga completa com embeds (índice de busca): um JOIN FETCH em vez de 1+N
+    @Query("SELECT DISTINCT e FROM SportEvent e LEFT JOIN FETCH e.embeds")
+    List<SportEvent> findAllWithEmbeds();
+
+    // Embeds de uma página ou lote já escolhido; na mesma transação inicializa as entidades gerenciadas
+    @Query("SELECT DISTINCT e FROM SportEvent e LEFT JOIN FETCH e.embeds WHERE e.id IN :ids")
+    List<SportEvent> findAllWithEmbedsByIdIn(Collection<String> ids);
 }
 
-// ================= SERVICES =================
+@Repository
+interface ArchivedEventRepository extends JpaRepository<ArchivedEvent, String> {
+    @Query("SELECT a.id FROM ArchivedEvent a WHERE a.id IN :ids")
+    List<String> findExistingIds(Collection<String> ids);
+}
 
-@Service
-class ScoreService {
-    private final RestTemplate restTemplate;
+@Repository
+interface ScorerTotalRepository extends JpaRepository<ScorerTotal, String> {}
+
+@Repository
+interface IngestedGameRepository extends JpaRepository<IngestedGame, String> {
+    @Query("SELECT e.id, e.league FROM SportEvent e WHERE e.status = 'ended' AND e.league IS NOT NULL "
+            + "AND e.id NOT IN (SELECT g.eventId FROM IngestedGame g)")
+    List<Object[]> findPendingGames();
+}
+
+// ================= PERSISTÊNCIA DO SYNC (Diff + Batch) =================
+
+record SyncWriteResult(int inserted, int updated, int unchanged) {}
+
+// Publicado após o commit de eventos novos ou alterados (índices em memória se atualizam por ele)
+record SportEventsChanged(List<SportEvent> events) {}
+
+// Publicado após o commit de cada lote da retenção: ids que saíram de sport_events
+record SportEventsArchived(List<String> ids) {}
+
+/**
+ * Grava o resultado de um sync comparando o hash de conteúdo de cada evento com o
+ * estado atual. Eventos inalterados não geram nenhum comando no banco; novos e
+ * alterados são gravados numa única transação com batch JDBC (hibernate.jdbc.batch_size).
+ * Os hashes já conhecidos ficam em memória, então um sync sem mudanças nem consulta o banco.
+ */
+@Component
+class EventSyncWriter {
     private final SportEventRepository eventRepo;
+    private final TransactionTemplate tx;
+    private final Map<String, String> knownHashes = new ConcurrentHashMap<>();
 
-    public ScoreService(RestTemplate restTemplate, SportEventRepository eventRepo) {
-        this.restTemplate = restTemplate;
+    private final ApplicationEventPublisher publisher;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public EventSyncWriter(SportEventRepository eventRepo, PlatformTransactionManager txManager, ApplicationEventPublisher publisher) {
         this.eventRepo = eventRepo;
+        this.tx = new TransactionTemplate(txManager);
+        this.publisher = publisher;
     }
 
-    public void saveEvent(SportEvent event) {
-        eventRepo.save(event);
+    public SyncWriteResult write(List<SportEvent> events) {
+        Map<String, SportEvent> candidates = new LinkedHashMap<>();
+        Map<String, String> hashes = new HashMap<>();
+        for (SportEvent event : events) {
+            String hash = event.computeContentHash();
+            if (!hash.equals(knownHashes.get(event.getId()))) {
+                candidates.put(event.getId(), event);
+                hashes.put(event.getId(), hash);
+            }
+        }
+        int unchanged = events.size() - candidates.size();
+        if (candidates.isEmpty()) return new SyncWriteResult(0, 0, unchanged);
+
+        List<SportEvent> written = new ArrayList<>();
+        SyncWriteResult result = tx.execute(status -> {
+            Map<String, String> stored = new HashMap<>();
+            for (Object[] row : eventRepo.findContentHashes(candidates.keySet())) {
+                stored.put((String) row[0], (String) row[1]);
+            }
+
+            List<String> changedIds = new ArrayList<>();
+            int inserted = 0;
+            for (SportEvent event : candidates.values()) {
+                String id = event.getId();
+                if (!stored.containsKey(id)) {
+                    em.persist(event);
+                    written.add(event);
+                    inserted++;
+                } else if (!hashes.get(id).equals(stored.get(id))) {
+                    changedIds.add(id);
+                }
+            }
+            // Com embeds: os eventos publicados vão para o índice de busca, fora da sessão
+            for (SportEvent existing : changedIds.isEmpty() ? List.<SportEvent>of() : eventRepo.findAllWithEmbedsByIdIn(changedIds)) {
+                existing.updateFrom(candidates.get(existing.getId()));
+                written.add(existing);
+            }
+            return new SyncWriteResult(inserted, changedIds.size(), unchanged + candidates.size() - inserted - changedIds.size());
+        });
+
+        // Só após o commit: um rollback não pode deixar hashes "gravados" em memória
+        knownHashes.putAll(hashes);
+        if (!written.isEmpty()) publisher.publishEvent(new SportEventsChanged(written));
+        return result;
     }
 
-    @Scheduled(fixedRate = 300000) // Sincroniza a cada 5 minutos
-    public void syncEvents() {
-        syncCategory("soccer", "bra.1", "Futebol");
-        syncCategory("basketball", "nba", "Basquete");
+    @EventListener
+    public void onEventsArchived(SportEventsArchived archived) {
+        archived.ids().forEach(knownHashes::remove);
+    }
+}
+
+// ================= LISTAGEM PAGINADA (Keyset + Projeção) =================
+
+/**
+ * Página de uma listagem por cursor (keyset). O cursor é opaco para o cliente: guarda a chave
+ * de ordenação do último item entregue, em base64url. Continuar "depois de (start_time, id)"
+ * usa o índice em vez de OFFSET, então a página 100 custa o mesmo que a primeira e inserções
+ * do sync no meio da listagem não duplicam nem pulam itens. nextCursor nulo = última página.
+ */
+record KeysetPage<T>(List<T> items, String nextCursor) {
+    // Sem limit nem cursor as listagens devolvem tudo, como antes da paginação
+    static final int UNPAGED = Integer.MAX_VALUE;
+
+    static String encode(String... keys) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.join("\u0001", keys).getBytes(StandardCharsets.UTF_8));
     }
 
-    @SuppressWarnings({ "unchecked", "UseSpecificCatch" })
-    private void syncCategory(String sport, String league, String categoryName) {
-        String url = String.format("http://site.api.espn.com/apis/site/v2/sports/%s/%s/scoreboard", sport, league);
+    static String[] decode(String cursor, int parts) {
         try {
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-            if (response != null && response.containsKey("events")) {
-                List<Map<String, Object>> events = (List<Map<String, Object>>) response.get("events");
-                for (Map<String, Object> eventData : events) {
-                    try {
-                        SportEvent event = mapToSportEvent(eventData, categoryName);
-                        eventRepo.save(event);
-                    } catch (Exception e) {
-                        System.err.println("Erro ao processar evento: " + e.getMessage());
-                    }
-                }
+            String[] keys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\u0001", -1);
+            if (keys.length == parts) return keys;
+        } catch (IllegalArgumentException ignored) {}
+        throw new IllegalArgumentException("Cursor inválido: " + cursor);
+    }
+
+    // Lista em memória já ordenada pela chave (catálogo de canais): busca binária até o cursor
+    static <T> KeysetPage<T> ofSorted(List<T> sorted, Function<T, String> key, String cursor, int limit) {
+        int from = 0;
+        if (cursor != null) {
+            String after = decode(cursor, 1)[0];
+            int lo = 0, hi = sorted.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (key.apply(sorted.get(mid)).compareTo(after) <= 0) lo = mid + 1;
+                else hi = mid;
             }
-        } catch (Exception e) {
-            System.err.println("Erro ao sincronizar " + categoryName + ": " + e.getMessage());
+            from = lo;
         }
+        int to = (int) Math.min(sorted.size(), (long) from + limit);
+        List<T> items = sorted.subList(from, to);
+        return new KeysetPage<>(items, to < sorted.size() ? encode(key.apply(sorted.get(to - 1))) : null);
     }
+}
 
-    @SuppressWarnings("unchecked")
-    private SportEvent mapToSportEvent(Map<String, Object> data, String category) {
-        String id = (String) data.get("id");
-        String title = (String) data.get("name");
-        String shortName = (String) data.get("shortName");
-        
-        String dateStr = (String) data.get("date");
-        ZonedDateTime zdt = ZonedDateTime.parse(dateStr);
-        LocalDateTime start = zdt.toLocalDateTime();
-        LocalDateTime end = start.plusHours(2);
+/**
+ * Projeção ?fields= das listagens (nomes do JSON, separados por vírgula). Só os campos pedidos
+ * são serializados: a grade de canais não precisa de description e a lista de jogos não precisa
+ * de embeds. Sem fields, os itens saem completos como antes.
+ */
+final class FieldProjection<T> {
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-        Map<String, Object> statusObj = (Map<String, Object>) data.get("status");
-        Map<String, Object> typeObj = (Map<String, Object>) statusObj.get("type");
-        String state = (String) typeObj.get("state");
-        String status = "upcoming";
-        if ("in".equalsIgnoreCase(state)) status = "live";
-        else if ("post".equalsIgnoreCase(state)) status = "ended";
+    static final FieldProjection<Channel> CHANNELS = new FieldProjection<>(Map.of(
+            "id", Channel::getId,
+            "name", Channel::getName,
+            "description", Channel::getDescription,
+            "category", Channel::getCategory,
+            "logo_url", Channel::getLogoUrl,
+            "embed_url", Channel::getEmbedUrl,
+            "is_active", Channel::isActive));
 
-        String poster = "https://placehold.co/600x400?text=" + category;
-        try {
-            List<Map<String, Object>> competitions = (List<Map<String, Object>>) data.get("competitions");
-            if (!competitions.isEmpty()) {
-                List<Map<String, Object>> competitors = (List<Map<String, Object>>) competitions.get(0).get("competitors");
-                if (!competitors.isEmpty()) {
-                    Map<String, Object> team = (Map<String, Object>) competitors.get(0).get("team");
-                    if (team.containsKey("logo")) poster = (String) team.get("logo");
-                }
-            }
-        } catch (Exception ignored) {}
+    static final FieldProjection<SportEvent> SPORT_EVENTS = new FieldProjection<>(Map.of(
+            "id", SportEvent::getId,
+            "title", SportEvent::getTitle,
+            "description", SportEvent::getDescription,
+            "category", SportEvent::getCategory,
+            "poster", SportEvent::getPoster,
+            "start_time", e -> e.getStartTime() != null ? DATE_TIME.format(e.getStartTime()) : null,
+            "end_time", e -> e.getEndTime() != null ? DATE_TIME.format(e.getEndTime()) : null,
+            "status", SportEvent::getStatus,
+            "embeds", SportEvent::getEmbeds));
+
+    private final Map<String, Function<T, Object>> accessors;
 
-        return new SportEvent(id, title, shortName, category, poster, start, end, status);
+    private FieldProjection(Map<String, Function<T, Object>> accessors) {
+        this.accessors = accessors;
     }
 
-    @SuppressWarnings({ "unchecked", "UseSpecificCatch" })
-    public Map<String, Object> getLiveScores(String category) {
-        String sport = "soccer";
-        String league = "bra.1"; // Default Brasileirão
+    static boolean includes(String fields, String name) {
+        if (fields == null || fields.isBlank()) return true;
+        for (String raw : fields.split(",")) {
+            if (raw.trim().equalsIgnoreCase(name)) return true;
+        }
+        return false;
+    }
+
+    public List<?> apply(List<T> items, String fields) {
+        if (fields == null || fields.isBlank()) return items;
+
+        List<String> names = new ArrayList<>();
+        for (String raw : fields.split(",")) {
+            String name = raw.trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty() || names.contains(name)) continue;
+            if (!accessors.containsKey(name)) throw new IllegalArgumentException("Campo desconhecido: " + name);
+            names.add(name);
+        }
+        List<Map<String, Object>> projected = new ArrayList<>(items.size());
+        for (T item : items) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String name : names) row.put(name, accessors.get(name).apply(item));
+            projected.add(row);
+        }
+        return projected;
+    }
+}
+
+/**
+ * Consulta paginada de SportEvent para /sports, ordenada por (start_time, id).
+ * Os filtros são comparações exatas para o banco usar idx_sport_events_status_category_start:
+ * status é sempre minúsculo no sync e a categoria pedida é resolvida para as grafias gravadas.
+ * Embeds só são lidos quando a resposta os inclui, e então numa única consulta para a página
+ * inteira: o custo é constante (página + embeds), não 1+N.
+ */
+@Component
+class SportEventPager {
+    private final SportEventRepository eventRepo;
+    private final TransactionTemplate readTx;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public SportEventPager(SportEventRepository eventRepo, PlatformTransactionManager txManager) {
+        this.eventRepo = eventRepo;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    public KeysetPage<SportEvent> page(String category, String status, boolean descending, String cursor, int limit, boolean withEmbeds) {
+        return readTx.execute(tx -> {
+            KeysetPage<SportEvent> page = query(category, status, descending, cursor, limit);
+            if (withEmbeds && !page.items().isEmpty()) {
+                eventRepo.findAllWithEmbedsByIdIn(page.items().stream().map(SportEvent::getId).toList());
+            }
+            return page;
+        });
+    }
+
+    private KeysetPage<SportEvent> query(String category, String status, boolean descending, String cursor, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<SportEvent> query = cb.createQuery(SportEvent.class);
+        Root<SportEvent> e = query.from(SportEvent.class);
+        Expression<LocalDateTime> startTime = e.get("startTime");
+        Expression<String> id = e.get("id");
 
+        List<Predicate> where = new ArrayList<>();
+        if (status != null) where.add(cb.equal(e.get("status"), status.toLowerCase(Locale.ROOT)));
         if (category != null) {
-            if (category.equalsIgnoreCase("basquete") || category.equalsIgnoreCase("basketball")) {
-                sport = "basketball";
-                league = "nba";
-            } else if (category.equalsIgnoreCase("futebol") || category.equalsIgnoreCase("soccer")) {
-                sport = "soccer";
-                league = "bra.1";
-            } else if (category.equalsIgnoreCase("nfl") || category.equalsIgnoreCase("futebol americano")) {
-                sport = "football";
-                league = "nfl";
+            List<String> spellings = eventRepo.findDistinctCategories().stream()
+                    .filter(c -> c != null && c.equalsIgnoreCase(category))
+                    .toList();
+            if (spellings.isEmpty()) return new KeysetPage<>(List.of(), null);
+            where.add(e.get("category").in(spellings));
+        }
+        if (cursor != null) {
+            String[] keys = KeysetPage.decode(cursor, 2);
+            LocalDateTime afterStart;
+            try {
+                afterStart = LocalDateTime.parse(keys[0]);
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
             }
+            where.add(descending
+                    ? cb.or(cb.lessThan(startTime, afterStart), cb.and(cb.equal(startTime, afterStart), cb.lessThan(id, keys[1])))
+                    : cb.or(cb.greaterThan(startTime, afterStart), cb.and(cb.equal(startTime, afterStart), cb.greaterThan(id, keys[1]))));
         }
+        query.where(where.toArray(Predicate[]::new));
+        query.orderBy(descending ? List.of(cb.desc(startTime), cb.desc(id)) : List.of(cb.asc(startTime), cb.asc(id)));
 
-        String url = String.format("http://site.api.espn.com/apis/site/v2/sports/%s/%s/scoreboard", sport, league);
-        
-        try {
-            return restTemplate.getForObject(url, Map.class);
-        } catch (Exception e) {
-            return Map.of("error", "Failed to fetch scores: " + e.getMessage());
-        }
+        if (limit == KeysetPage.UNPAGED) return new KeysetPage<>(em.createQuery(query).getResultList(), null);
+        // Um item a mais só para saber se existe próxima página
+        List<SportEvent> rows = em.createQuery(query).setMaxResults(limit + 1).getResultList();
+        if (rows.size() <= limit) return new KeysetPage<>(rows, null);
+        List<SportEvent> items = rows.subList(0, limit);
+        SportEvent last = items.get(limit - 1);
+        return new KeysetPage<>(items, KeysetPage.encode(last.getStartTime().toString(), last.getId()));
     }
 }
 
-// ================= CONTROLLER (Endpoints REST) =================
-
-@RestController
-@SuppressWarnings("unused")
-class ApiController {
+// ================= RETENÇÃO (Arquivo de Eventos Encerrados) =================
 
-    private final ChannelRepository channelRepo;
+/**
+ * Tira de sport_events/event_embeds os eventos encerrados há mais de tvlabs.retention.ended-after.
+ * Cada lote (batch-size eventos) é uma transação curta: copia a forma compacta para
+ * sport_events_history (ou anexa uma linha JSON em tvlabs.retention.file, com archive=file)
+ * e apaga embeds + eventos por id. Entre lotes os locks são soltos, então o sync e as
+ * listagens nunca esperam pela limpeza inteira. Roda em segundo plano, fora das requisições.
+ */
+@Component
+class EventRetention {
     private final SportEventRepository eventRepo;
-    private final ScoreService scoreService;
-    private final RestTemplate restTemplate;
+    private final ArchivedEventRepository historyRepo;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher publisher;
+    private final ObjectMapper mapper;
+    private final boolean enabled;
+    private final Duration endedAfter;
+    private final int batchSize;
+    private final String archive;
+    private final Path file;
 
-    public ApiController(ChannelRepository channelRepo, SportEventRepository eventRepo, ScoreService scoreService, RestTemplate restTemplate) {
-        this.channelRepo = channelRepo;
+    private final ReentrantLock running = new ReentrantLock();
+    private final AtomicLong archived = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile Instant lastRun;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public EventRetention(SportEventRepository eventRepo, ArchivedEventRepository historyRepo,
+            PlatformTransactionManager txManager, ApplicationEventPublisher publisher, ObjectMapper mapper,
+            @Value("${tvlabs.retention.enabled:true}") boolean enabled,
+            @Value("${tvlabs.retention.ended-after:30d}") Duration endedAfter,
+            @Value("${tvlabs.retention.batch-size:200}") int batchSize,
+            @Value("${tvlabs.retention.archive:table}") String archive,
+            @Value("${tvlabs.retention.file:data/sport-events-history.jsonl}") String file) {
         this.eventRepo = eventRepo;
-        this.scoreService = scoreService;
-        this.restTemplate = restTemplate;
+        this.historyRepo = historyRepo;
+        this.tx = new TransactionTemplate(txManager);
+        this.publisher = publisher;
+        this.mapper = mapper;
+        this.enabled = enabled;
+        this.endedAfter = endedAfter;
+        this.batchSize = batchSize;
+        this.archive = archive.toLowerCase(Locale.ROOT);
+        this.file = Path.of(file);
     }
 
-    // Redireciona a raiz para o frontend
-    @GetMapping("/")
-    public ResponseEntity<Void> index() {
-        return ResponseEntity.status(HttpStatus.FOUND).location(URI.create("/TVLabs.html")).build();
+    @Scheduled(fixedDelayString = "${tvlabs.retention.interval:1h}", initialDelayString = "${tvlabs.retention.initial-delay:5m}")
+    public void run() {
+        if (!enabled || !running.tryLock()) return;
+        try {
+            // start_time/end_time vêm da ESPN em UTC (ScoreService.mapToSportEvent), não no fuso do servidor
+            LocalDateTime cutoff = LocalDateTime.now(ZoneOffset.UTC).minus(endedAfter);
+            int moved;
+            do {
+                moved = archiveBatch(cutoff);
+            } while (moved == batchSize);
+            lastRun = Instant.now();
+        } catch (RuntimeException | IOException e) {
+            System.err.println("Erro na retenção de eventos: " + e.getMessage());
+        } finally {
+            running.unlock();
+        }
     }
 
-    // --- ENDPOINTS DE CANAIS ---
+    private int archiveBatch(LocalDateTime cutoff) throws IOException {
+        List<ArchivedEvent> batch = eventRepo.findArchivable(cutoff, Limit.of(batchSize));
+        if (batch.isEmpty()) return 0;
 
-    @GetMapping("/channels")
-    public ResponseEntity<ApiResponse<List<Channel>>> getChannels(@RequestParam(required = false) String category) {
-        List<Channel> channels;
-        if (category != null && !category.isEmpty()) {
-            channels = channelRepo.findByCategoryIgnoreCase(category);
-        } else {
-            channels = channelRepo.findAll();
-        }
-        return ResponseEntity.ok(new ApiResponse<>(true, channels, channels.size()));
+        List<String> ids = batch.stream().map(ArchivedEvent::getId).toList();
+        Instant now = Instant.now();
+        batch.forEach(e -> e.markArchived(now));
+        // Arquivo antes de apagar: se o processo cair no meio, o pior caso é uma linha repetida
+        if ("file".equals(archive)) appendToFile(batch);
+
+        tx.executeWithoutResult(status -> {
+            if ("table".equals(archive)) {
+                // persist direto: saveAll com id atribuído vira merge, um SELECT por linha; os repetidos já saíram acima
+                Set<String> existing = new HashSet<>(historyRepo.findExistingIds(ids));
+                for (ArchivedEvent event : batch) {
+                    if (!existing.contains(event.getId())) em.persist(event);
+                }
+            }
+            eventRepo.deleteEmbeds(ids);
+            eventRepo.deleteByIds(ids);
+        });
+
+        archived.addAndGet(ids.size());
+        batches.incrementAndGet();
+        publisher.publishEvent(new SportEventsArchived(ids));
+        return batch.size();
     }
 
-    @GetMapping("/channels/{id}")
-    public ResponseEntity<?> getChannelById(@PathVariable String id) {
-        return channelRepo.findById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    private void appendToFile(List<ArchivedEvent> batch) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        StringBuilder lines = new StringBuilder();
+        for (ArchivedEvent event : batch) lines.append(mapper.writeValueAsString(event)).append('\n');
+        Files.writeString(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
     }
 
-    @GetMapping("/channels/categories")
-    public ResponseEntity<ApiResponse<List<CategoryDTO>>> getChannelCategories() {
-        List<String> rawCategories = channelRepo.findDistinctCategories();
-        List<CategoryDTO> categories = rawCategories.stream()
-                .map(CategoryDTO::new)
-                .collect(Collectors.toList());
-        // Spec exige wrapper com total
-        return ResponseEntity.ok(new ApiResponse<>(true, categories, categories.size()));
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ended_after", endedAfter.toString());
+        stats.put("archive", archive);
+        stats.put("batch_size", batchSize);
+        stats.put("archived", archived.get());
+        stats.put("batches", batches.get());
+        stats.put("last_run", lastRun);
+        return stats;
     }
+}
 
-    // --- ENDPOINTS DE ESPORTES ---
+// ================= REGISTRO DE LIGAS =================
 
-    @GetMapping("/sports")
-    public ResponseEntity<?> getSports(
-            @RequestParam(required = false) String category,
-            @RequestParam(required = false) String status) {
-        
-        List<SportEvent> events;
-        if (category != null && status != null) {
-            events = eventRepo.findByCategoryIgnoreCaseAndStatusIgnoreCase(category, status);
-        } else if (category != null) {
-            events = eventRepo.findByCategoryIgnoreCase(category);
-        } else if (status != null) {
-            events = eventRepo.findByStatusIgnoreCase(status);
-        } else {
-            events = eventRepo.findAll();
-        }
-        return ResponseEntity.ok(new ApiResponse<>(true, events, events.size()));
-    }
+// Liga sincronizável com a ESPN; category é o nome do esporte usado em SportEvent.category
+record League(String sport, String key, String slug, String name, String category,
+        Object apiId, String logo, String bg, String wikiPage) {
+    String id() { return sport + "/" + slug; }
+}
 
-    @GetMapping("/sports/{id}")
-    public ResponseEntity<?> getSportById(@PathVariable String id) {
-        return eventRepo.findById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+// Fatia de /api/config/sports/{league}: a liga no formato do SportsData + os times do WikiData
+record LeagueConfig(
+        String sport,
+        String category,
+        String key,
+        @JsonProperty("id") Object apiId,
+        String slug,
+        String name,
+        String logo,
+        String bg,
+        String wikiPage,
+        Map<String, String> teams) {}
+
+record LeagueSyncResult(
+        @JsonProperty("finished_at") Instant finishedAt,
+        @JsonProperty("duration_ms") long durationMs,
+        int events,
+        int inserted,
+        int updated,
+        String error) {}
+
+// Publicado a cada sync de liga concluído (com sucesso ou não)
+record LeagueSynced(League league, LeagueSyncResult result) {}
+
+/**
+ * Registro de ligas montado a partir de SportsData.JSON.
+ * tvlabs.sync.leagues define quais ligas são sincronizadas ("sport/slug", separadas por
+ * vírgula); vazio = Brasileirão e NBA, como sempre foi; "all" = todas as ligas do SportsData.
+ */
+@Component
+class LeagueRegistry {
+    static final List<String> DEFAULT_SYNC = List.of("soccer/bra.1", "basketball/nba");
+
+    private final List<League> leagues = new ArrayList<>();
+    private final List<League> syncLeagues;
+
+    @SuppressWarnings("unchecked")
+    public LeagueRegistry(ObjectMapper mapper, @Value("${tvlabs.sync.leagues:}") List<String> enabled) {
+        Map<String, Object> sports = mapper.readValue(SportsData.JSON, Map.class);
+        sports.forEach((sportKey, sportValue) -> {
+            Map<String, Object> sport = (Map<String, Object>) sportValue;
+            String category = (String) sport.get("name");
+            Map<String, Object> sportLeagues = (Map<String, Object>) sport.get("leagues");
+            sportLeagues.forEach((leagueKey, leagueValue) -> {
+                Map<String, Object> league = (Map<String, Object>) leagueValue;
+                leagues.add(new League(sportKey, leagueKey, (String) league.get("slug"), (String) league.get("name"), category,
+                        league.get("id"), (String) league.get("logo"), (String) league.get("bg"), (String) league.get("wikiPage")));
+            });
+        });
+
+        List<String> listed = enabled.stream().map(String::trim).filter(id -> !id.isEmpty()).toList();
+        List<String> wanted = listed.isEmpty() ? DEFAULT_SYNC : listed;
+        this.syncLeagues = wanted.contains("all")
+                ? List.copyOf(leagues)
+                : leagues.stream().filter(l -> wanted.contains(l.id())).toList();
     }
 
-    @GetMapping("/sports/categories")
-    public ResponseEntity<ApiResponse<List<CategoryDTO>>> getSportCategories() {
-        List<String> rawCategories = eventRepo.findDistinctCategories();
-        List<CategoryDTO> categories = rawCategories.stream()
-                .map(CategoryDTO::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(new ApiResponse<>(true, categories, categories.size()));
+    public List<League> all() { return leagues; }
+    public List<League> syncLeagues() { return syncLeagues; }
+
+    public Optional<League> find(String id) {
+        return leagues.stream().filter(l -> l.id().equals(id)).findFirst();
     }
 
-    // --- SCORES ENDPOINT (ESPN INTEGRATION) ---
+    public Optional<League> find(String sport, String slug) {
+        return find(sport + "/" + slug);
+    }
 
-    @GetMapping("/scores")
-    public ResponseEntity<?> getScores(@RequestParam(required = false, defaultValue = "futebol") String category) {
-        return ResponseEntity.ok(scoreService.getLiveScores(category));
+    // Chave do SportsData ("brasileirao") ou slug da ESPN ("bra.1")
+    public Optional<League> findByKeyOrSlug(String keyOrSlug) {
+        return leagues.stream()
+                .filter(l -> l.key().equalsIgnoreCase(keyOrSlug) || l.slug().equalsIgnoreCase(keyOrSlug))
+                .findFirst();
     }
+}
 
-    // --- ENDPOINT DE BUSCA UNIFICADA ---
+// ================= DIRETÓRIO DE TIMES (WikiData) =================
 
-    @GetMapping("/search")
-    public ResponseEntity<ApiResponse<SearchResultDTO>> search(@RequestParam String q) {
-        List<Channel> channels = channelRepo.search(q);
-        List<SportEvent> events = eventRepo.search(q);
+// Time de uma liga do WikiData; wiki é o slug da página na Wikipedia
+record Team(String name, String wiki, String league) {}
 
-        SearchResultDTO result = new SearchResultDTO(channels, events);
-        SearchMeta meta = new SearchMeta(q, channels.size(), events.size());
+/**
+ * WikiData.JSON parseado uma vez no startup: liga → times (na ordem original) e nome
+ * normalizado (sem acentos/maiúsculas) → times, já que o mesmo clube aparece em várias
+ * ligas (ex.: Brasileirão e Libertadores).
+ */
+@Component
+class TeamDirectory {
+    private final Map<String, Map<String, String>> byLeague;
+    private final Map<String, List<Team>> byName;
+    private final List<Team> all;
 
-        // Spec exige wrapper com meta
-        return ResponseEntity.ok(new ApiResponse<>(true, result, meta));
+    @SuppressWarnings("unchecked")
+    public TeamDirectory(ObjectMapper mapper) {
+        Map<String, Map<String, String>> leagues = new LinkedHashMap<>();
+        Map<String, List<Team>> names = new HashMap<>();
+        List<Team> teams = new ArrayList<>();
+        Map<String, Object> raw = mapper.readValue(WikiData.JSON, Map.class);
+        raw.forEach((leagueKey, value) -> {
+            Map<String, String> leagueTeams = new LinkedHashMap<>((Map<String, String>) value);
+            leagues.put(leagueKey, Collections.unmodifiableMap(leagueTeams));
+            leagueTeams.forEach((name, wiki) -> {
+                Team team = new Team(name, wiki, leagueKey);
+                teams.add(team);
+                names.computeIfAbsent(SearchIndex.normalize(name), k -> new ArrayList<>()).add(team);
+            });
+        });
+        this.byLeague = Collections.unmodifiableMap(leagues);
+        this.byName = new HashMap<>();
+        names.forEach((k, v) -> byName.put(k, List.copyOf(v)));
+        this.all = List.copyOf(teams);
     }
 
-    // --- PROXY INTERNO (Evita CORS no Frontend) ---
-    @GetMapping("/proxy")
-    public ResponseEntity<String> proxy(@RequestParam String url) {
-        try {
-            String content = restTemplate.getForObject(url, String.class);
-            return ResponseEntity.ok().header("Content-Type", "application/json").body(content);
-        } catch (RestClientException | IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("{\"error\": \"" + e.getMessage() + "\"}");
-        }
+    public List<Team> all() { return all; }
+
+    public Map<String, String> teamsOf(String leagueKey) {
+        return byLeague.getOrDefault(leagueKey, Map.of());
+    }
+
+    // Nome normalizado; com liga informada, prefere o cadastro daquela liga
+    public Optional<Team> find(String name, String leagueKey) {
+        List<Team> candidates = byName.getOrDefault(SearchIndex.normalize(name), List.of());
+        return candidates.stream()
+                .filter(t -> t.league().equals(leagueKey))
+                .findFirst()
+                .or(() -> candidates.stream().findFirst());
     }
 }
 
-// ================= CONFIG CONTROLLER (Frontend Data) =================
+// ================= INGESTÃO ESPN (Parser Streaming) =================
 
-@RestController
-@RequestMapping("/api/config")
-@SuppressWarnings({"unused"})
-class ConfigController {
+// Lado de um jogo no scoreboard; name é o nome curto (shortDisplayName ou displayName)
+record EspnSide(String id, String name, String abbreviation, String logo, String score) {
+    String label() { return abbreviation != null ? abbreviation : name; }
+}
 
-    @GetMapping("/sports")
-    public ResponseEntity<String> getSportsConfig() {
-        return ResponseEntity.ok(SportsData.JSON);
+// Só o que usamos de cada evento do scoreboard da ESPN
+record EspnGame(
+        String id,
+        String name,
+        String shortName,
+        String date,
+        String state,
+        boolean completed,
+        String detail,
+        String clock,
+        Integer period,
+        EspnSide home,
+        EspnSide away) {}
+
+/**
+ * Lê o scoreboard da ESPN token a token (JsonParser) direto do corpo da resposta e monta
+ * EspnGame sem materializar a árvore Map/List: tudo o que não é usado é pulado com
+ * skipChildren(). Tolerante a mudanças de schema: campos desconhecidos são ignorados,
+ * campos ausentes viram null, e valores com tipo trocado (placar numérico em vez de texto,
+ * placar como objeto, logo como lista "logos") são aceitos. Eventos sem id são descartados.
+ *
+ * Metas: até 4 KB alocados por evento (EspnScoreboardParserTests) e ao menos 10 mil
+ * eventos/s em um núcleo (SyncMappingBenchmark.parseThroughput). As estatísticas reais ficam em /api/status/parser.
+ */
+@Component
+class EspnScoreboardParser {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean() instanceof ThreadMXBean t ? t : null;
+
+    private final ObjectMapper mapper;
+    private final LongAdder payloads = new LongAdder();
+    private final LongAdder games = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder allocated = new LongAdder();
+    private final LongAdder measuredGames = new LongAdder();
+
+    public EspnScoreboardParser(ObjectMapper mapper) {
+        this.mapper = mapper;
     }
 
-    @GetMapping("/wiki")
-    public ResponseEntity<String> getWikiConfig() {
-        return ResponseEntity.ok(WikiData.JSON);
+    public List<EspnGame> parse(InputStream body) throws IOException {
+        long allocatedBefore = allocatedBytes();
+        CountingInputStream in = new CountingInputStream(body);
+        List<EspnGame> result = new ArrayList<>();
+        try (JsonParser p = mapper.createParser(in)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) return result;
+            while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                if ("events".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (p.nextToken() != JsonToken.END_ARRAY) {
+                        EspnGame game = p.currentToken() == JsonToken.START_OBJECT ? event(p) : null;
+                        if (game != null) result.add(game);
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            }
+        } catch (JacksonException e) {
+            throw new IOException("Scoreboard ESPN inválido: " + e.getOriginalMessage(), e);
+        }
+
+        payloads.increment();
+        games.add(result.size());
+        bytes.add(in.count);
+        long allocatedAfter = allocatedBytes();
+        if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+            allocated.add(allocatedAfter - allocatedBefore);
+            measuredGames.add(result.size());
+        }
+        return result;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long parsedGames = games.sum();
+        long measured = measuredGames.sum();
+        stats.put("payloads", payloads.sum());
+        stats.put("games", parsedGames);
+        stats.put("bytes", bytes.sum());
+        stats.put("bytes_per_game", parsedGames == 0 ? 0 : bytes.sum() / parsedGames);
+        stats.put("allocated_bytes_per_game", measured == 0 ? null : allocated.sum() / measured);
+        return stats;
+    }
+
+    // -1 quando a JVM não mede alocação por thread (ou para virtual threads em algumas versões)
+    static long allocatedBytes() {
+        if (THREADS == null || !THREADS.isThreadAllocatedMemorySupported() || !THREADS.isThreadAllocatedMemoryEnabled()) return -1;
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private EspnGame event(JsonParser p) {
+        String id = null, name = null, shortName = null, date = null;
+        Status status = null;
+        Competition competition = null;
+        while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "id" -> id = text(p);
+                case "name" -> name = text(p);
+                case "shortName" -> shortName = text(p);
+                case "date" -> date = text(p);
+                case "status" -> status = status(p);
+                case "competitions" -> competition = firstCompetition(p);
+                default -> p.skipChildren();
+            }
+        }
+        if (id == null) return null;
+        if (competition == null) competition = new Competition();
+        if (status == null) status = competition.status != null ? competition.status : new Status();
+        if (date == null) date = competition.date;
+        return new EspnGame(id, name, shortName, date, status.state, status.completed, status.detail, status.clock,
+                status.period, competition.home, competition.away);
+    }
+
+    private Competition firstCompetition(JsonParser p) {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        Competition competition = null;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (competition == null && p.currentToken() == JsonToken.START_OBJECT) {
+                competition = competition(p);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return competition;
+    }
+
+    private Competition competition(JsonParser p) {
+        Competition competition = new Competition();
+        while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "date" -> competition.date = text(p);
+                case "status" -> competition.status = status(p);
+                case "competitors" -> competitors(p, competition);
+                default -> p.skipChildren();
+            }
+        }
+        return competition;
+    }
+
+    // Sem homeAway, o primeiro competidor é o mandante e o segundo o visitante
+    private void competitors(JsonParser p, Competition competition) {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return;
+        }
+        int index = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            String[] homeAway = new String[1];
+            EspnSide side = competitor(p, homeAway);
+            boolean home = homeAway[0] != null ? "home".equals(homeAway[0]) : index == 0;
+            if (home && competition.home == null) competition.home = side;
+            else if (!home && competition.away == null) competition.away = side;
+            index++;
+        }
+    }
+
+    private EspnSide competitor(JsonParser p, String[] homeAway) {
+        String score = null;
+        String id = null, name = null, abbreviation = null, logo = null;
+        while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "homeAway" -> homeAway[0] = text(p);
+                case "score" -> score = p.currentToken() == JsonToken.START_OBJECT ? nested(p, "displayValue") : text(p);
+                case "team" -> {
+                    if (p.currentToken() != JsonToken.START_OBJECT) {
+                        p.skipChildren();
+                        break;
+                    }
+                    String displayName = null, shortDisplayName = null;
+                    while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+                        String teamField = p.currentName();
+                        p.nextToken();
+                        switch (teamField) {
+                            case "id" -> id = text(p);
+                            case "displayName" -> displayName = text(p);
+                            case "shortDisplayName" -> shortDisplayName = text(p);
+                            case "abbreviation" -> abbreviation = text(p);
+                            case "logo" -> logo = text(p);
+                            case "logos" -> { if (logo == null) logo = firstHref(p); else p.skipChildren(); }
+                            default -> p.skipChildren();
+                        }
+                    }
+                    name = shortDisplayName != null ? shortDisplayName : displayName;
+                }
+                default -> p.skipChildren();
+            }
+        }
+        return new EspnSide(id, name, abbreviation, logo, score);
+    }
+
+    private Status status(JsonParser p) {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return null;
+        }
+        Status status = new Status();
+        while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "displayClock" -> status.clock = text(p);
+                case "period" -> status.period = integer(p);
+                case "type" -> {
+                    if (p.currentToken() != JsonToken.START_OBJECT) {
+                        p.skipChildren();
+                        break;
+                    }
+                    while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+                        String typeField = p.currentName();
+                        p.nextToken();
+                        switch (typeField) {
+                            case "state" -> status.state = text(p);
+                            case "completed" -> status.completed = "true".equals(text(p));
+                            case "shortDetail" -> status.detail = text(p);
+                            default -> p.skipChildren();
+                        }
+                    }
+                }
+                default -> p.skipChildren();
+            }
+        }
+        return status;
+    }
+
+    // Primeiro "href" de uma lista de objetos (ex.: logos)
+    private String firstHref(JsonParser p) {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return null;
+        }
+        String href = null;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (href == null && p.currentToken() == JsonToken.START_OBJECT) href = nested(p, "href");
+            else p.skipChildren();
+        }
+        return href;
+    }
+
+    // Valor escalar de um campo de um objeto; o resto do objeto é pulado
+    private String nested(JsonParser p, String name) {
+        String value = null;
+        while (p.nextToken() == JsonToken.PROPERTY_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            if (name.equals(field)) value = text(p);
+            else p.skipChildren();
+        }
+        return value;
+    }
+
+    // Escalar como texto (números e booleanos também); objetos/listas inesperados viram null
+    private static String text(JsonParser p) {
+        JsonToken token = p.currentToken();
+        if (token == null || token == JsonToken.VALUE_NULL) return null;
+        if (token.isStructStart()) {
+            p.skipChildren();
+            return null;
+        }
+        return p.getValueAsString();
+    }
+
+    private static Integer integer(JsonParser p) {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) return p.getValueAsInt();
+        String text = text(p);
+        if (text == null) return null;
+        try {
+            return Integer.valueOf(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Competition {
+        private String date;
+        private Status status;
+        private EspnSide home;
+        private EspnSide away;
+    }
+
+    private static final class Status {
+        private String state;
+        private boolean completed;
+        private String detail;
+        private String clock;
+        private Integer period;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
+
+// ================= SERVICES =================
+
+@Service
+class ScoreService {
+    private final RestTemplate restTemplate;
+    private final OutboundPool syncPool;
+    private final SportEventRepository eventRepo;
+    private final LeagueRegistry leagueRegistry;
+    private final EventSyncWriter syncWriter;
+    private final EspnScoreboardParser espnParser;
+    private final LiveScoreStore scoreStore;
+    private final Duration onDemandInterval;
+    private final String espnBaseUrl;
+
+    // Sync paralelo: uma virtual thread por liga, limitado por um teto global de concorrência
+    private final ExecutorService syncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore syncPermits;
+    private final Map<String, LeagueSyncResult> lastSync = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<LeagueSyncResult>> running = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher events;
+
+    public ScoreService(RestTemplate restTemplate, OutboundHttp outboundHttp, SportEventRepository eventRepo, LeagueRegistry leagueRegistry,
+            EventSyncWriter syncWriter, EspnScoreboardParser espnParser, LiveScoreStore scoreStore, ApplicationEventPublisher events,
+            @Value("${tvlabs.sync.max-concurrency:4}") int maxConcurrency,
+            @Value("${tvlabs.scores.on-demand-interval:30s}") Duration onDemandInterval,
+            @Value("${tvlabs.espn.base-url:https://site.api.espn.com}") String espnBaseUrl) {
+        this.restTemplate = restTemplate;
+        this.syncPool = outboundHttp.pool("sync");
+        this.eventRepo = eventRepo;
+        this.leagueRegistry = leagueRegistry;
+        this.syncWriter = syncWriter;
+        this.espnParser = espnParser;
+        this.scoreStore = scoreStore;
+        this.events = events;
+        this.syncPermits = new Semaphore(maxConcurrency);
+        this.onDemandInterval = onDemandInterval;
+        this.espnBaseUrl = espnBaseUrl.endsWith("/") ? espnBaseUrl.substring(0, espnBaseUrl.length() - 1) : espnBaseUrl;
+    }
+
+    public void saveEvent(SportEvent event) {
+        SportEvent saved = eventRepo.save(event);
+        events.publishEvent(new SportEventsChanged(List.of(saved)));
+    }
+
+    // Sincronização completa (startup); o ritmo por liga fica com o AdaptiveSyncScheduler
+    public void syncEvents() {
+        syncLeagues(leagueRegistry.syncLeagues());
+    }
+
+    /**
+     * Sincroniza as ligas em paralelo. Falhas e lentidão ficam isoladas por liga
+     * (cada chamada tem seu próprio prazo no pool "sync"), então o tempo total
+     * é limitado pela liga mais lenta e não pela soma de todas.
+     */
+    public void syncLeagues(List<League> leagues) {
+        List<CompletableFuture<LeagueSyncResult>> pending = new ArrayList<>(leagues.size());
+        for (League league : leagues) {
+            pending.add(syncAsync(league).exceptionally(e -> {
+                System.err.println("Sync de " + league.id() + " abortado: " + e);
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+    }
+
+    // Dispara o sync de uma liga; se ela já estiver sincronizando, reaproveita a execução em andamento
+    public CompletableFuture<LeagueSyncResult> syncAsync(League league) {
+        CompletableFuture<LeagueSyncResult> mine = new CompletableFuture<>();
+        CompletableFuture<LeagueSyncResult> current = running.putIfAbsent(league.id(), mine);
+        if (current != null) return current;
+
+        // Qualquer throwable (Error, falha do writer ou de um listener) ainda libera a liga e o futuro:
+        // senão a liga ficaria presa em running e o join() de syncLeagues esperaria para sempre
+        syncExecutor.execute(() -> {
+            LeagueSyncResult result = null;
+            Throwable failure = null;
+            try {
+                result = syncLeague(league);
+            } catch (Throwable t) {
+                failure = t;
+                throw t;
+            } finally {
+                running.remove(league.id(), mine);
+                if (failure == null) mine.complete(result);
+                else mine.completeExceptionally(failure);
+            }
+        });
+        return mine;
+    }
+
+    /**
+     * Ligas fora do agendador (ver tvlabs.sync.leagues) pedidas em /scores: sync em segundo
+     * plano, no máximo um a cada tvlabs.scores.on-demand-interval. Quem chama não espera.
+     */
+    public void refreshOnDemand(League league) {
+        if (leagueRegistry.syncLeagues().contains(league)) return;
+        LeagueSyncResult last = lastSync.get(league.id());
+        if (last != null && last.finishedAt().plus(onDemandInterval).isAfter(Instant.now())) return;
+        syncAsync(league);
+    }
+
+    public Map<String, LeagueSyncResult> getLastSync() {
+        return new TreeMap<>(lastSync);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        syncExecutor.shutdownNow();
+    }
+
+    @SuppressWarnings("UseSpecificCatch")
+    private LeagueSyncResult syncLeague(League league) {
+        long start = System.nanoTime();
+        LeagueSyncResult result;
+        try {
+            syncPermits.acquire();
+            try {
+                SyncWriteResult written = syncCategory(league, league.category());
+                result = new LeagueSyncResult(Instant.now(), elapsedMs(start),
+                        written.inserted() + written.updated() + written.unchanged(), written.inserted(), written.updated(), null);
+            } finally {
+                syncPermits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = new LeagueSyncResult(Instant.now(), elapsedMs(start), 0, 0, 0, "interrompido");
+        } catch (Exception e) {
+            System.err.println("Erro ao sincronizar " + league.id() + ": " + e.getMessage());
+            result = new LeagueSyncResult(Instant.now(), elapsedMs(start), 0, 0, 0, e.getMessage());
+        }
+        lastSync.put(league.id(), result);
+        events.publishEvent(new LeagueSynced(league, result));
+        return result;
+    }
+
+    public List<EspnGame> fetchScoreboard(League league) {
+        String url = String.format("%s/apis/site/v2/sports/%s/%s/scoreboard", espnBaseUrl, league.sport(), league.slug());
+        return fetchGames(url);
+    }
+
+    // Temporada inteira (mesma consulta que o frontend usava para a artilharia)
+    public List<EspnGame> fetchSeasonScoreboard(League league, int year) {
+        String url = String.format("%s/apis/site/v2/sports/%s/%s/scoreboard?dates=%d",
+                espnBaseUrl, league.sport(), league.slug(), year);
+        return fetchGames(url);
+    }
+
+    // O corpo vai direto para o parser streaming, sem passar por Map
+    private List<EspnGame> fetchGames(String url) {
+        List<EspnGame> games = syncPool.get(() -> restTemplate.execute(url, HttpMethod.GET, null, response -> espnParser.parse(response.getBody())));
+        return games != null ? games : List.of();
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> fetchSummary(League league, String eventId) {
+        String url = String.format("%s/apis/site/v2/sports/%s/%s/summary?event=%s&lang=pt&contentorigin=espn",
+                espnBaseUrl, league.sport(), league.slug(), eventId);
+        return syncPool.get(() -> restTemplate.getForObject(url, Map.class));
+    }
+
+    @SuppressWarnings("UseSpecificCatch")
+    private SyncWriteResult syncCategory(League league, String categoryName) {
+        List<EspnGame> games = fetchScoreboard(league);
+        scoreStore.update(league, games);
+        if (games.isEmpty()) return new SyncWriteResult(0, 0, 0);
+
+        List<SportEvent> mapped = new ArrayList<>(games.size());
+        for (EspnGame game : games) {
+            try {
+                SportEvent event = mapToSportEvent(game, categoryName);
+                event.assignLeague(league.id());
+                mapped.add(event);
+            } catch (Exception e) {
+                System.err.println("Erro ao processar evento: " + e.getMessage());
+            }
+        }
+        return syncWriter.write(mapped);
+    }
+
+    private static long elapsedMs(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    static SportEvent mapToSportEvent(EspnGame game, String category) {
+        LocalDateTime start = ZonedDateTime.parse(game.date()).toLocalDateTime();
+        LocalDateTime end = start.plusHours(2);
+
+        String status = "upcoming";
+        if ("in".equalsIgnoreCase(game.state())) status = "live";
+        else if ("post".equalsIgnoreCase(game.state())) status = "ended";
+
+        String poster = "https://placehold.co/600x400?text=" + category;
+        if (game.home() != null && game.home().logo() != null) poster = game.home().logo();
+        else if (game.away() != null && game.away().logo() != null) poster = game.away().logo();
+
+        return new SportEvent(game.id(), game.name(), game.shortName(), category, poster, start, end, status);
+    }
+
+    // Liga padrão de cada categoria aceita por /scores (Brasileirão quando não reconhecida)
+    public Optional<League> leagueForCategory(String category) {
+        String sport = "soccer";
+        String league = "bra.1"; // Default Brasileirão
+
+        if (category != null) {
+            if (category.equalsIgnoreCase("basquete") || category.equalsIgnoreCase("basketball")) {
+                sport = "basketball";
+                league = "nba";
+            } else if (category.equalsIgnoreCase("futebol") || category.equalsIgnoreCase("soccer")) {
+                sport = "soccer";
+                league = "bra.1";
+            } else if (category.equalsIgnoreCase("nfl") || category.equalsIgnoreCase("futebol americano")) {
+                sport = "football";
+                league = "nfl";
+            }
+        }
+        return leagueRegistry.find(sport, league);
+    }
+}
+
+// ================= AGENDADOR ADAPTATIVO DO SYNC =================
+
+/**
+ * Define o ritmo de sync de cada liga a partir dos eventos já gravados:
+ * - LIVE: há eventos com status "live" -> live-interval
+ * - SOON: próximo início dentro de soon-window (ou já passou sem virar live) -> soon-interval
+ * - IDLE: nada acontecendo -> idle-interval dobrando a cada rodada ociosa até idle-max-interval
+ * - BACKOFF: falha no sync -> failure-base * 2^(falhas-1) até failure-max
+ * Intervalos de IDLE/BACKOFF recebem jitter de ±20% para não sincronizar tudo junto.
+ */
+@Component
+class AdaptiveSyncScheduler {
+    enum Mode { LIVE, SOON, IDLE, BACKOFF }
+
+    private final ScoreService scoreService;
+    private final SportEventRepository eventRepo;
+    private final List<League> leagues;
+    private final Map<String, LeagueSchedule> schedules = new ConcurrentHashMap<>();
+
+    private final Duration liveInterval;
+    private final Duration soonInterval;
+    private final Duration soonWindow;
+    private final Duration idleInterval;
+    private final Duration idleMaxInterval;
+    private final Duration failureBase;
+    private final Duration failureMax;
+
+    public AdaptiveSyncScheduler(ScoreService scoreService, SportEventRepository eventRepo, LeagueRegistry leagueRegistry,
+            @Value("${tvlabs.sync.live-interval:10s}") Duration liveInterval,
+            @Value("${tvlabs.sync.soon-interval:60s}") Duration soonInterval,
+            @Value("${tvlabs.sync.soon-window:2h}") Duration soonWindow,
+            @Value("${tvlabs.sync.idle-interval:5m}") Duration idleInterval,
+            @Value("${tvlabs.sync.idle-max-interval:1h}") Duration idleMaxInterval,
+            @Value("${tvlabs.sync.failure-base:30s}") Duration failureBase,
+            @Value("${tvlabs.sync.failure-max:30m}") Duration failureMax) {
+        this.scoreService = scoreService;
+        this.eventRepo = eventRepo;
+        this.leagues = leagueRegistry.syncLeagues();
+        this.liveInterval = liveInterval;
+        this.soonInterval = soonInterval;
+        this.soonWindow = soonWindow;
+        this.idleInterval = idleInterval;
+        this.idleMaxInterval = idleMaxInterval;
+        this.failureBase = failureBase;
+        this.failureMax = failureMax;
+
+        Instant now = Instant.now();
+        for (League league : leagues) {
+            schedules.put(league.id(), new LeagueSchedule(Mode.IDLE, 0, now, 0, 0));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tvlabs.sync.tick:1s}")
+    public void tick() {
+        Instant now = Instant.now();
+        for (League league : leagues) {
+            LeagueSchedule schedule = schedules.get(league.id());
+            if (!schedule.nextRunAt().isAfter(now)) {
+                // Empurra a próxima execução enquanto o sync roda; o resultado define o valor real
+                schedules.put(league.id(), schedule.withNextRun(now.plus(failureMax)));
+                scoreService.syncAsync(league);
+            }
+        }
+    }
+
+    @EventListener
+    public void onLeagueSynced(LeagueSynced synced) {
+        String id = synced.league().id();
+        LeagueSchedule previous = schedules.get(id);
+        if (previous == null) return; // Liga fora do agendamento (sync manual)
+
+        LeagueSchedule next;
+        if (synced.result().error() != null) {
+            int failures = previous.consecutiveFailures() + 1;
+            Duration interval = jitter(cap(failureBase.multipliedBy(1L << Math.min(failures - 1, 20)), failureMax));
+            next = new LeagueSchedule(Mode.BACKOFF, interval.toMillis(), Instant.now().plus(interval), failures, 0);
+        } else {
+            next = scheduleFromEvents(id, previous);
+        }
+        schedules.put(id, next);
+    }
+
+    public Map<String, LeagueSchedule> getSchedules() {
+        return new TreeMap<>(schedules);
+    }
+
+    private LeagueSchedule scheduleFromEvents(String league, LeagueSchedule previous) {
+        Instant now = Instant.now();
+        LocalDateTime utcNow = LocalDateTime.now(ZoneOffset.UTC);
+
+        if (eventRepo.countLive(league) > 0) {
+            return new LeagueSchedule(Mode.LIVE, liveInterval.toMillis(), now.plus(liveInterval), 0, 0);
+        }
+
+        // Jogos que já deveriam ter começado (até 3h atrás) contam como "em breve"
+        LocalDateTime nextStart = eventRepo.findNextStart(league, utcNow.minusHours(3));
+        Duration untilStart = nextStart == null ? null : Duration.between(utcNow, nextStart);
+        if (untilStart != null && untilStart.compareTo(soonWindow) <= 0) {
+            return new LeagueSchedule(Mode.SOON, soonInterval.toMillis(), now.plus(soonInterval), 0, 0);
+        }
+
+        int idleStreak = previous.mode() == Mode.IDLE ? previous.idleStreak() + 1 : 1;
+        Duration interval = jitter(cap(idleInterval.multipliedBy(1L << Math.min(idleStreak - 1, 20)), idleMaxInterval));
+        // Nunca dorme além do momento em que a liga entraria na janela "em breve"
+        if (untilStart != null) {
+            Duration untilWindow = untilStart.minus(soonWindow);
+            if (untilWindow.compareTo(interval) < 0) interval = untilWindow.isNegative() ? soonInterval : untilWindow;
+        }
+        return new LeagueSchedule(Mode.IDLE, interval.toMillis(), now.plus(interval), 0, idleStreak);
+    }
+
+    private static Duration cap(Duration value, Duration max) {
+        return value.compareTo(max) > 0 ? max : value;
+    }
+
+    private static Duration jitter(Duration base) {
+        double factor = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (base.toMillis() * factor));
+    }
+
+    record LeagueSchedule(
+            Mode mode,
+            @JsonProperty("interval_ms") long intervalMs,
+            @JsonProperty("next_run_at") Instant nextRunAt,
+            @JsonProperty("consecutive_failures") int consecutiveFailures,
+            @JsonProperty("idle_streak") int idleStreak) {
+
+        LeagueSchedule withNextRun(Instant nextRun) {
+            return new LeagueSchedule(mode, intervalMs, nextRun, consecutiveFailures, idleStreak);
+        }
+    }
+}
+
+// ================= ARTILHARIA (Agregação no Servidor) =================
+
+record ScorerEntry(
+        @JsonProperty("athlete_id") long athleteId,
+        String name,
+        String headshot,
+        String team,
+        int goals) {}
+
+/**
+ * Artilharia por liga montada no servidor. Quando o sync grava um jogo como "ended",
+ * o resumo dele é buscado uma única vez na ESPN e os gols somados no placar da liga;
+ * o jogo fica registrado em ingested_games para nunca ser somado de novo. Os totais
+ * ficam em memória (mapa de id do atleta → linha, sem boxing) e em scorer_totals,
+ * recarregados no startup. Jogos cuja busca falhou são tentados de novo periodicamente.
+ * As buscas de resumo passam por um teto próprio (tvlabs.leaders.max-concurrency), abaixo do
+ * bulkhead do pool "sync", para o backfill não tomar as vagas do sync das ligas.
+ * Ligas de futebol fora de tvlabs.sync.leagues não recebem jogos do sync: a temporada delas é
+ * carregada quando /leaders pede a liga, no máximo uma vez a cada tvlabs.leaders.on-demand-interval.
+ */
+@Component
+class LeaderboardService {
+    private final ScoreService scoreService;
+    private final LeagueRegistry leagueRegistry;
+    private final ScorerTotalRepository totalRepo;
+    private final IngestedGameRepository gameRepo;
+    private final TransactionTemplate tx;
+    private final boolean backfill;
+    private final Semaphore fetchPermits;
+    private final Duration onDemandInterval;
+
+    private final Map<String, Board> boards = new ConcurrentHashMap<>();
+    private final Set<String> ingested = ConcurrentHashMap.newKeySet();
+    // Jogo em processamento → liga; junto com loadingSeasons diz se o placar da liga ainda está sendo montado
+    private final Map<String, String> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> loadingSeasons = ConcurrentHashMap.newKeySet();
+    private final Map<String, Instant> onDemandRuns = new ConcurrentHashMap<>();
+    // Falhas a repetir no próximo ingestPending: jogos (id → liga) e temporadas do backfill
+    private final Map<String, String> failedGames = new ConcurrentHashMap<>();
+    private final Set<String> failedSeasons = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LeaderboardService(ScoreService scoreService, LeagueRegistry leagueRegistry, ScorerTotalRepository totalRepo,
+            IngestedGameRepository gameRepo, PlatformTransactionManager txManager,
+            @Value("${tvlabs.leaders.backfill:true}") boolean backfill,
+            @Value("${tvlabs.leaders.max-concurrency:2}") int maxConcurrency,
+            @Value("${tvlabs.leaders.on-demand-interval:10m}") Duration onDemandInterval) {
+        this.scoreService = scoreService;
+        this.leagueRegistry = leagueRegistry;
+        this.totalRepo = totalRepo;
+        this.gameRepo = gameRepo;
+        this.tx = new TransactionTemplate(txManager);
+        this.backfill = backfill;
+        this.fetchPermits = new Semaphore(Math.max(1, maxConcurrency));
+        this.onDemandInterval = onDemandInterval;
+    }
+
+    @PostConstruct
+    void load() {
+        gameRepo.findAll().forEach(g -> ingested.add(g.getEventId()));
+        totalRepo.findAll().forEach(t -> board(t.getLeague()).add(t.getAthleteId(), t.getName(), t.getHeadshot(), t.getTeam(), t.getGoals()));
+    }
+
+    @EventListener
+    public void onEventsChanged(SportEventsChanged changed) {
+        for (SportEvent event : changed.events()) {
+            if ("ended".equals(event.getStatus()) && event.getLeague() != null) submit(event.getId(), event.getLeague());
+        }
+    }
+
+    // Jogos encerrados ainda não somados (falhas anteriores, backfill ou banco já populado)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${tvlabs.leaders.retry-interval:5m}", initialDelayString = "${tvlabs.leaders.retry-interval:5m}")
+    public void ingestPending() {
+        for (Object[] row : gameRepo.findPendingGames()) submit((String) row[0], (String) row[1]);
+        new ArrayList<>(failedGames.keySet()).forEach(eventId -> {
+            String leagueId = failedGames.remove(eventId);
+            if (leagueId != null) submit(eventId, leagueId);
+        });
+        new ArrayList<>(failedSeasons).forEach(leagueId -> {
+            if (failedSeasons.remove(leagueId)) leagueRegistry.find(leagueId).ifPresent(this::backfillLeague);
+        });
+    }
+
+    /**
+     * Jogos da temporada que terminaram antes do servidor subir: uma consulta por liga de
+     * futebol no startup, depois o sync incremental assume.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSeason() {
+        if (!backfill) return;
+        for (League league : leagueRegistry.syncLeagues()) {
+            if ("soccer".equals(league.sport())) backfillLeague(league);
+        }
+    }
+
+    /**
+     * Liga pedida em /leaders. Fora do sync, recarrega a temporada em segundo plano (só jogos ainda
+     * não somados viram buscas de resumo). Retorna true enquanto o placar da liga está sendo montado.
+     */
+    public boolean refreshOnDemand(League league) {
+        if (backfill && "soccer".equals(league.sport()) && !leagueRegistry.syncLeagues().contains(league)) {
+            Instant now = Instant.now();
+            Instant last = onDemandRuns.get(league.id());
+            boolean due = last == null
+                    ? onDemandRuns.putIfAbsent(league.id(), now) == null
+                    : last.plus(onDemandInterval).isBefore(now) && onDemandRuns.replace(league.id(), last, now);
+            if (due) backfillLeague(league);
+        }
+        return warming(league.id());
+    }
+
+    private boolean warming(String leagueId) {
+        return loadingSeasons.contains(leagueId) || inFlight.containsValue(leagueId);
+    }
+
+    private void backfillLeague(League league) {
+        int year = LocalDateTime.now(ZoneOffset.UTC).getYear();
+        if (!loadingSeasons.add(league.id())) return;
+        executor.execute(() -> {
+            try {
+                List<EspnGame> games = withFetchPermit(() -> scoreService.fetchSeasonScoreboard(league, year));
+                for (EspnGame game : games) {
+                    if (game.completed()) submit(game.id(), league.id());
+                }
+            } catch (Exception e) {
+                failedSeasons.add(league.id());
+                System.err.println("Erro ao carregar temporada de " + league.id() + ": " + e.getMessage());
+            } finally {
+                loadingSeasons.remove(league.id());
+            }
+        });
+    }
+
+    public List<ScorerEntry> top(String leagueId, int limit) {
+        Board board = boards.get(leagueId);
+        return board == null ? List.of() : board.top(limit);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submit(String eventId, String leagueId) {
+        if (ingested.contains(eventId) || inFlight.putIfAbsent(eventId, leagueId) != null) return;
+        executor.execute(() -> {
+            try {
+                Optional<League> league = leagueRegistry.find(leagueId);
+                if (league.isPresent()) {
+                    List<Goal> goals = new ArrayList<>();
+                    collectGoals(withFetchPermit(() -> scoreService.fetchSummary(league.get(), eventId)), null, goals);
+                    record(leagueId, eventId, goals);
+                }
+            } catch (Exception e) {
+                failedGames.put(eventId, leagueId);
+                System.err.println("Erro ao somar artilharia do jogo " + eventId + ": " + e.getMessage());
+            } finally {
+                inFlight.remove(eventId);
+            }
+        });
+    }
+
+    private <T> T withFetchPermit(Callable<T> fetch) throws Exception {
+        fetchPermits.acquire();
+        try {
+            return fetch.call();
+        } finally {
+            fetchPermits.release();
+        }
+    }
+
+    /**
+     * Grava o jogo como somado e os novos totais numa transação; o placar em memória só muda
+     * depois do commit. Se a transação falha, o jogo volta para a fila sem ter sido contado.
+     * O lock de escrita do Board serializa jogos da mesma liga entre o cálculo e o commit.
+     */
+    void record(String leagueId, String eventId, List<Goal> goals) {
+        Board board = board(leagueId);
+        board.writer.lock();
+        try {
+            List<ScorerTotal> changed = board.totalsAfter(goals);
+            tx.executeWithoutResult(status -> {
+                gameRepo.save(new IngestedGame(eventId, leagueId, Instant.now()));
+                totalRepo.saveAll(changed);
+            });
+            board.apply(goals);
+        } finally {
+            board.writer.unlock();
+        }
+        ingested.add(eventId);
+    }
+
+    private Board board(String leagueId) {
+        return boards.computeIfAbsent(leagueId, Board::new);
+    }
+
+    record Goal(long athleteId, String name, String headshot, String team, int goals) {}
+
+    /**
+     * Procura as categorias de líderes de gols em qualquer nível do resumo: o formato varia
+     * (lista plana de categorias ou uma lista por time), então o time mais próximo é herdado.
+     */
+    @SuppressWarnings("unchecked")
+    private static void collectGoals(Object node, String team, List<Goal> out) {
+        if (node instanceof List<?> list) {
+            list.forEach(item -> collectGoals(item, team, out));
+            return;
+        }
+        if (!(node instanceof Map<?, ?> raw)) return;
+        Map<String, Object> map = (Map<String, Object>) raw;
+        String currentTeam = teamName(map.get("team"), team);
+
+        if (isGoalsCategory(map) && map.get("leaders") instanceof List<?> leaders) {
+            for (Object item : leaders) {
+                if (item instanceof Map<?, ?> leader && leader.get("athlete") instanceof Map<?, ?> athlete) {
+                    long id = parseLong(athlete.get("id"));
+                    int value = (int) parseDouble(leader.get("value"));
+                    if (id <= 0 || value <= 0) continue;
+                    String headshot = athlete.get("headshot") instanceof Map<?, ?> h ? (String) h.get("href") : null;
+                    out.add(new Goal(id, (String) athlete.get("displayName"), headshot,
+                            teamName(leader.get("team"), currentTeam), value));
+                }
+            }
+            return;
+        }
+        if (map.containsKey("leaders")) collectGoals(map.get("leaders"), currentTeam, out);
+    }
+
+    private static boolean isGoalsCategory(Map<String, Object> category) {
+        return "goals".equalsIgnoreCase(String.valueOf(category.get("name")))
+                || "Gols".equalsIgnoreCase(String.valueOf(category.get("shortDisplayName")));
+    }
+
+    private static String teamName(Object team, String fallback) {
+        return team instanceof Map<?, ?> t && t.get("displayName") instanceof String name ? name : fallback;
+    }
+
+    private static long parseLong(Object value) {
+        try {
+            return Long.parseLong(String.valueOf(value));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static double parseDouble(Object value) {
+        if (value instanceof Number n) return n.doubleValue();
+        try {
+            return Double.parseDouble(String.valueOf(value));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Totais de uma liga em arrays paralelos; o índice de cada atleta vem de uma tabela
+     * hash aberta long → int (sondagem linear), então somar um gol não cria objetos.
+     */
+    static final class Board {
+        private final String league;
+        private final ReentrantLock lock = new ReentrantLock();
+        final ReentrantLock writer = new ReentrantLock();
+        private long[] slotKeys = new long[64];
+        private int[] slotRows = new int[64];
+        private int size;
+
+        private long[] athleteIds = new long[32];
+        private int[] goals = new int[32];
+        private String[] names = new String[32];
+        private String[] headshots = new String[32];
+        private String[] teams = new String[32];
+
+        Board(String league) {
+            this.league = league;
+        }
+
+        void add(long athleteId, String name, String headshot, String team, int value) {
+            lock.lock();
+            try {
+                int row = row(athleteId);
+                goals[row] += value;
+                if (name != null) names[row] = name;
+                if (headshot != null) headshots[row] = headshot;
+                if (team != null) teams[row] = team;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Linhas como ficariam depois de somar os gols de um jogo, sem alterar o placar
+        List<ScorerTotal> totalsAfter(List<Goal> gameGoals) {
+            Map<Long, ScorerTotal> changed = new LinkedHashMap<>();
+            lock.lock();
+            try {
+                for (Goal goal : gameGoals) {
+                    ScorerTotal current = changed.get(goal.athleteId());
+                    if (current == null) {
+                        int row = find(goal.athleteId());
+                        current = row < 0
+                                ? new ScorerTotal(league, goal.athleteId(), null, null, null, 0)
+                                : new ScorerTotal(league, athleteIds[row], names[row], headshots[row], teams[row], goals[row]);
+                    }
+                    changed.put(goal.athleteId(), new ScorerTotal(league, goal.athleteId(),
+                            goal.name() != null ? goal.name() : current.getName(),
+                            goal.headshot() != null ? goal.headshot() : current.getHeadshot(),
+                            goal.team() != null ? goal.team() : current.getTeam(),
+                            current.getGoals() + goal.goals()));
+                }
+            } finally {
+                lock.unlock();
+            }
+            return new ArrayList<>(changed.values());
+        }
+
+        // Soma os gols de um jogo já persistido
+        void apply(List<Goal> gameGoals) {
+            for (Goal goal : gameGoals) add(goal.athleteId(), goal.name(), goal.headshot(), goal.team(), goal.goals());
+        }
+
+        List<ScorerEntry> top(int limit) {
+            lock.lock();
+            try {
+                Integer[] order = new Integer[size];
+                for (int i = 0; i < size; i++) order[i] = i;
+                Arrays.sort(order, (a, b) -> goals[b] != goals[a] ? Integer.compare(goals[b], goals[a])
+                        : String.valueOf(names[a]).compareTo(String.valueOf(names[b])));
+                int n = Math.min(Math.max(limit, 0), size);
+                List<ScorerEntry> result = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    int row = order[i];
+                    result.add(new ScorerEntry(athleteIds[row], names[row], headshots[row], teams[row], goals[row]));
+                }
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Linha do atleta ou -1 se ainda não está no placar
+        private int find(long athleteId) {
+            return slotRows[probe(slotKeys, athleteId)] - 1;
+        }
+
+        // Chave 0 marca slot vazio (ids da ESPN são positivos); slotRows guarda linha + 1
+        private int row(long athleteId) {
+            int slot = probe(slotKeys, athleteId);
+            if (slotKeys[slot] == athleteId) return slotRows[slot] - 1;
+            if (size == athleteIds.length) growRows();
+            int row = size++;
+            athleteIds[row] = athleteId;
+            slotKeys[slot] = athleteId;
+            slotRows[slot] = row + 1;
+            if (size * 2 > slotKeys.length) rehash();
+            return row;
+        }
+
+        private void growRows() {
+            int capacity = athleteIds.length * 2;
+            athleteIds = Arrays.copyOf(athleteIds, capacity);
+            goals = Arrays.copyOf(goals, capacity);
+            names = Arrays.copyOf(names, capacity);
+            headshots = Arrays.copyOf(headshots, capacity);
+            teams = Arrays.copyOf(teams, capacity);
+        }
+
+        private void rehash() {
+            long[] keys = new long[slotKeys.length * 2];
+            int[] rows = new int[keys.length];
+            for (int row = 0; row < size; row++) {
+                int slot = probe(keys, athleteIds[row]);
+                keys[slot] = athleteIds[row];
+                rows[slot] = row + 1;
+            }
+            slotKeys = keys;
+            slotRows = rows;
+        }
+
+        // Slot da chave ou o slot vazio onde ela entraria (a tabela nunca passa de metade cheia)
+        private static int probe(long[] keys, long athleteId) {
+            int mask = keys.length - 1;
+            int slot = Long.hashCode(athleteId * 0x9E3779B97F4A7C15L) & mask;
+            while (keys[slot] != 0 && keys[slot] != athleteId) slot = (slot + 1) & mask;
+            return slot;
+        }
+    }
+}
+
+// ================= CATÁLOGO DE CANAIS (Snapshot Imutável) =================
+
+record ChannelCatalogChanged(ChannelCatalog.Snapshot previous, ChannelCatalog.Snapshot current) {}
+
+/**
+ * Catálogo de canais servido da memória. O catálogo quase nunca muda (carga do startup),
+ * então cada versão vira um snapshot imutável com as listas por categoria, o mapa por id
+ * e os DTOs de categoria já prontos. Escritas passam por aqui, vão para o banco e trocam
+ * o snapshot de uma vez; leitores nunca tocam no JPA nem veem um estado pela metade.
+ */
+@Component
+class ChannelCatalog {
+    private final ChannelRepository channelRepo;
+    private final ApplicationEventPublisher events;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot snapshot = Snapshot.build(0, List.of());
+
+    public ChannelCatalog(ChannelRepository channelRepo, ApplicationEventPublisher events) {
+        this.channelRepo = channelRepo;
+        this.events = events;
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public void saveAll(List<Channel> channels) {
+        writeLock.lock();
+        try {
+            channelRepo.saveAll(channels);
+            reload();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Caso os canais tenham sido gravados por fora (ex.: banco já populado)
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIfEmpty() {
+        if (snapshot.version() == 0) reload();
+    }
+
+    public void reload() {
+        writeLock.lock();
+        try {
+            Snapshot previous = snapshot;
+            snapshot = Snapshot.build(previous.version() + 1, channelRepo.findAll());
+            events.publishEvent(new ChannelCatalogChanged(previous, snapshot));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    record Snapshot(long version, Instant builtAt, List<Channel> all, Map<String, Channel> byId,
+            Map<String, List<Channel>> byCategory, List<CategoryDTO> categories) {
+
+        // Filtro de categoria sem diferenciar maiúsculas, como o findByCategoryIgnoreCase
+        List<Channel> byCategory(String category) {
+            return byCategory.getOrDefault(category.toLowerCase(Locale.ROOT), List.of());
+        }
+
+        // Ordem por id: é a chave do cursor de /channels (ver KeysetPage.ofSorted)
+        static Snapshot build(long version, List<Channel> unsorted) {
+            List<Channel> channels = new ArrayList<>(unsorted);
+            channels.sort(Comparator.comparing(Channel::getId));
+            Map<String, Channel> byId = new HashMap<>();
+            Map<String, List<Channel>> grouped = new LinkedHashMap<>();
+            Map<String, CategoryDTO> categories = new LinkedHashMap<>();
+            for (Channel channel : channels) {
+                byId.put(channel.getId(), channel);
+                String category = channel.getCategory();
+                if (category == null) continue;
+                grouped.computeIfAbsent(category.toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(channel);
+                categories.putIfAbsent(category, new CategoryDTO(category));
+            }
+            Map<String, List<Channel>> byCategory = new HashMap<>();
+            grouped.forEach((k, v) -> byCategory.put(k, List.copyOf(v)));
+            return new Snapshot(version, Instant.now(), List.copyOf(channels), Map.copyOf(byId),
+                    Map.copyOf(byCategory), List.copyOf(categories.values()));
+        }
+    }
+}
+
+// ================= BUSCA (Índice Invertido em Memória) =================
+
+record SearchPage<T>(List<T> items, int total) {}
+
+/**
+ * Índice invertido de trigramas sobre Channel e SportEvent, substituindo os
+ * LIKE '%q%' do banco. Textos são normalizados sem acento e em minúsculas
+ * ("Documentários" == "documentarios"). Mantém a semântica de substring do LIKE:
+ * os trigramas da consulta selecionam candidatos, que são confirmados com contains().
+ * Ranking: campo mais relevante (nome/título) > categoria > descrição, e casamento
+ * exato > início de palavra > substring.
+ */
+@Component
+class SearchIndex {
+    private final SportEventRepository eventRepo;
+
+    private final TextIndex<Channel> channels = new TextIndex<>(
+            c -> new String[] { c.getName(), c.getCategory(), c.getDescription() }, new int[] { 3, 2, 1 }, Channel::getName);
+    private final TextIndex<SportEvent> events = new TextIndex<>(
+            e -> new String[] { e.getTitle(), e.getCategory(), e.getDescription() }, new int[] { 3, 2, 1 }, SportEvent::getTitle);
+
+    public SearchIndex(SportEventRepository eventRepo) {
+        this.eventRepo = eventRepo;
+    }
+
+    // Carga inicial após os dados do startup; não sobrescreve o que o sync já indexou
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        eventRepo.findAllWithEmbeds().forEach(e -> events.put(e.getId(), e, false));
+    }
+
+    @EventListener
+    public void onCatalogChanged(ChannelCatalogChanged changed) {
+        Map<String, Channel> current = changed.current().byId();
+        changed.previous().byId().keySet().stream().filter(id -> !current.containsKey(id)).forEach(channels::remove);
+        current.forEach((id, c) -> channels.put(id, c, true));
+    }
+
+    @EventListener
+    public void onEventsChanged(SportEventsChanged changed) {
+        changed.events().forEach(e -> events.put(e.getId(), e, true));
+    }
+
+    @EventListener
+    public void onEventsArchived(SportEventsArchived archived) {
+        archived.ids().forEach(events::remove);
+    }
+
+    public SearchPage<Channel> searchChannels(String query, int limit, int offset) {
+        return channels.search(query, limit, offset);
+    }
+
+    public SearchPage<SportEvent> searchEvents(String query, int limit, int offset) {
+        return events.search(query, limit, offset);
+    }
+
+    // Sem acentos, minúsculas, pontuação vira espaço simples
+    static String normalize(String text) {
+        if (text == null) return "";
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean space = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char ch = decomposed.charAt(i);
+            if (Character.getType(ch) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(ch)) {
+                sb.append(Character.toLowerCase(ch));
+                space = false;
+            } else if (!space && sb.length() > 0) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int end = sb.length();
+        if (end > 0 && sb.charAt(end - 1) == ' ') sb.setLength(end - 1);
+        return sb.toString();
+    }
+
+    private static class TextIndex<T> {
+        private final Function<T, String[]> fields;
+        private final int[] weights;
+        private final Function<T, String> sortKey;
+
+        private final Map<String, Doc<T>> docs = new HashMap<>();
+        private final Map<String, Set<String>> postings = new HashMap<>();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        TextIndex(Function<T, String[]> fields, int[] weights, Function<T, String> sortKey) {
+            this.fields = fields;
+            this.weights = weights;
+            this.sortKey = sortKey;
+        }
+
+        void put(String id, T item, boolean replace) {
+            String[] raw = fields.apply(item);
+            String[] normalized = new String[raw.length];
+            for (int i = 0; i < raw.length; i++) normalized[i] = normalize(raw[i]);
+            Doc<T> doc = new Doc<>(item, normalized);
+
+            lock.writeLock().lock();
+            try {
+                Doc<T> previous = docs.get(id);
+                if (previous != null && !replace) return;
+                if (previous != null) unlink(id, previous);
+                docs.put(id, doc);
+                for (String gram : grams(doc)) {
+                    postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(String id) {
+            lock.writeLock().lock();
+            try {
+                Doc<T> previous = docs.remove(id);
+                if (previous != null) unlink(id, previous);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        SearchPage<T> search(String query, int limit, int offset) {
+            String q = normalize(query);
+            List<Scored<T>> hits = new ArrayList<>();
+
+            lock.readLock().lock();
+            try {
+                for (String id : candidates(q)) {
+                    Doc<T> doc = docs.get(id);
+                    int score = score(doc, q);
+                    if (score > 0) hits.add(new Scored<>(doc.item(), score));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            hits.sort(Comparator.<Scored<T>>comparingInt(Scored::score).reversed()
+                    .thenComparing(h -> String.valueOf(sortKey.apply(h.item()))));
+            int from = Math.min(Math.max(offset, 0), hits.size());
+            int to = (int) Math.min(hits.size(), (long) from + Math.max(limit, 0));
+            List<T> page = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) page.add(hits.get(i).item());
+            return new SearchPage<>(page, hits.size());
+        }
+
+        // Consultas com menos de 3 caracteres não têm trigramas: varre os documentos
+        private Collection<String> candidates(String q) {
+            if (q.length() < 3) return docs.keySet();
+
+            List<Set<String>> lists = new ArrayList<>();
+            for (int i = 0; i + 3 <= q.length(); i++) {
+                Set<String> ids = postings.get(q.substring(i, i + 3));
+                if (ids == null) return List.of();
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            List<String> result = new ArrayList<>();
+            outer:
+            for (String id : lists.get(0)) {
+                for (int i = 1; i < lists.size(); i++) {
+                    if (!lists.get(i).contains(id)) continue outer;
+                }
+                result.add(id);
+            }
+            return result;
+        }
+
+        // Consulta vazia casa com tudo, como o LIKE '%%' de antes; a ordem fica pela sortKey
+        private int score(Doc<T> doc, String q) {
+            if (q.isEmpty()) return 1;
+            int score = 0;
+            for (int i = 0; i < doc.fields().length; i++) {
+                String field = doc.fields()[i];
+                int at = field.indexOf(q);
+                if (at < 0) continue;
+                int match = field.length() == q.length() ? 4 : (at == 0 || field.charAt(at - 1) == ' ') ? 2 : 1;
+                score += weights[i] * match;
+            }
+            return score;
+        }
+
+        private void unlink(String id, Doc<T> doc) {
+            for (String gram : grams(doc)) {
+                Set<String> ids = postings.get(gram);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) postings.remove(gram);
+            }
+        }
+
+        private static Set<String> grams(Doc<?> doc) {
+            Set<String> grams = new HashSet<>();
+            for (String field : doc.fields()) {
+                for (int i = 0; i + 3 <= field.length(); i++) grams.add(field.substring(i, i + 3));
+            }
+            return grams;
+        }
+
+        private record Doc<T>(T item, String[] fields) {}
+        private record Scored<T>(T item, int score) {}
+    }
+}
+
+// ================= AUTOCOMPLETE (Radix Trie) =================
+
+record Suggestion(String text, String type) {}
+
+/**
+ * Sugestões por prefixo para /search/suggest.
+ * Termos: nomes de canais, títulos de eventos, ligas (SportsData) e times (WikiData).
+ * Cada termo entra pelo texto completo e por cada início de palavra ("palm" acha
+ * "Flamengo vs Palmeiras"). A trie é compacta (rótulos em um único char[], nós em
+ * arrays paralelos) e cada nó guarda o top-k já ordenado por popularidade, então uma
+ * consulta é só a descida pelo prefixo. Popularidade = peso base do tipo + ocorrências
+ * + buscas feitas em /search. A trie é imutável e reconstruída em segundo plano quando
+ * os dados ou as buscas mudam.
+ */
+@Component
+class SuggestIndex {
+    private static final int TOP_K = 10;
+
+    private final ChannelCatalog catalog;
+    private final SportEventRepository eventRepo;
+    private final LeagueRegistry leagueRegistry;
+    private final TeamDirectory teamDirectory;
+
+    private final Map<String, LongAdder> searches = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private volatile CompactTrie trie = CompactTrie.EMPTY;
+
+    public SuggestIndex(ChannelCatalog catalog, SportEventRepository eventRepo, LeagueRegistry leagueRegistry, TeamDirectory teamDirectory) {
+        this.catalog = catalog;
+        this.eventRepo = eventRepo;
+        this.leagueRegistry = leagueRegistry;
+        this.teamDirectory = teamDirectory;
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return trie.lookup(SearchIndex.normalize(prefix), Math.min(Math.max(limit, 0), TOP_K));
+    }
+
+    public void recordSearch(String query) {
+        String key = SearchIndex.normalize(query);
+        if (key.isEmpty()) return;
+        searches.computeIfAbsent(key, k -> new LongAdder()).increment();
+        dirty.set(true);
+    }
+
+    @EventListener({ SportEventsChanged.class, SportEventsArchived.class, ChannelCatalogChanged.class })
+    public void onDataChanged() {
+        dirty.set(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${tvlabs.suggest.rebuild-interval:60s}", initialDelayString = "${tvlabs.suggest.rebuild-interval:60s}")
+    public void rebuild() {
+        if (!dirty.getAndSet(false)) return;
+
+        Map<String, Term> terms = new HashMap<>();
+        for (Channel channel : catalog.snapshot().all()) addTerm(terms, channel.getName(), "channel", 50);
+        for (League league : leagueRegistry.all()) addTerm(terms, league.name(), "league", 40);
+        for (Team team : teamDirectory.all()) addTerm(terms, team.name(), "team", 30);
+        for (Object[] row : eventRepo.findTitlesAndStatus()) {
+            addTerm(terms, (String) row[0], "event", "live".equals(row[1]) ? 60 : 20);
+        }
+        terms.values().forEach(t -> {
+            LongAdder count = searches.get(SearchIndex.normalize(t.text()));
+            if (count != null) t.weight += count.sum();
+        });
+        trie = CompactTrie.build(terms.values());
+    }
+
+    // Mesmo texto vindo de fontes repetidas (ex.: time em várias ligas) soma peso
+    private static void addTerm(Map<String, Term> terms, String text, String type, long weight) {
+        if (text == null || text.isBlank()) return;
+        String key = type + ":" + SearchIndex.normalize(text);
+        Term term = terms.computeIfAbsent(key, k -> new Term(text, type));
+        term.weight += weight;
+    }
+
+    static final class Term {
+        private final String text;
+        private final String type;
+        private long weight;
+
+        Term(String text, String type) {
+            this.text = text;
+            this.type = type;
+        }
+
+        String text() { return text; }
+    }
+
+    /**
+     * Radix trie imutável em arrays. O nó 0 é a raiz; os filhos de cada nó ficam
+     * contíguos e ordenados pelo primeiro caractere do rótulo (busca binária).
+     */
+    static final class CompactTrie {
+        static final CompactTrie EMPTY = build(List.of());
+
+        private final char[] labels;
+        private final int[] labelStart;
+        private final int[] labelLength;
+        private final int[] firstChild;
+        private final int[] childCount;
+        private final int[] topStart;
+        private final int[] topLength;
+        private final int[] top;
+        private final Suggestion[] suggestions;
+
+        private CompactTrie(char[] labels, int[] labelStart, int[] labelLength, int[] firstChild, int[] childCount,
+                int[] topStart, int[] topLength, int[] top, Suggestion[] suggestions) {
+            this.labels = labels;
+            this.labelStart = labelStart;
+            this.labelLength = labelLength;
+            this.firstChild = firstChild;
+            this.childCount = childCount;
+            this.topStart = topStart;
+            this.topLength = topLength;
+            this.top = top;
+            this.suggestions = suggestions;
+        }
+
+        List<Suggestion> lookup(String prefix, int limit) {
+            int node = 0;
+            int i = 0;
+            while (i < prefix.length()) {
+                node = child(node, prefix.charAt(i));
+                if (node < 0) return List.of();
+                int start = labelStart[node];
+                int end = start + labelLength[node];
+                for (int j = start; j < end && i < prefix.length(); j++, i++) {
+                    if (labels[j] != prefix.charAt(i)) return List.of();
+                }
+            }
+            int n = Math.min(limit, topLength[node]);
+            List<Suggestion> result = new ArrayList<>(n);
+            for (int k = 0; k < n; k++) result.add(suggestions[top[topStart[node] + k]]);
+            return result;
+        }
+
+        private int child(int node, char c) {
+            int lo = firstChild[node];
+            int hi = lo + childCount[node] - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char first = labels[labelStart[mid]];
+                if (first < c) lo = mid + 1;
+                else if (first > c) hi = mid - 1;
+                else return mid;
+            }
+            return -1;
+        }
+
+        static CompactTrie build(Collection<Term> terms) {
+            List<Term> ordered = new ArrayList<>(terms);
+            ordered.sort(Comparator.comparingLong((Term t) -> t.weight).reversed().thenComparing(Term::text));
+            Suggestion[] suggestions = new Suggestion[ordered.size()];
+
+            // 1. Trie simples com todas as chaves (texto completo + cada início de palavra)
+            BuildNode root = new BuildNode("");
+            for (int id = 0; id < ordered.size(); id++) {
+                Term term = ordered.get(id);
+                suggestions[id] = new Suggestion(term.text, term.type);
+                String key = SearchIndex.normalize(term.text);
+                for (int i = 0; i < key.length(); i++) {
+                    if (i == 0 || key.charAt(i - 1) == ' ') root.insert(key, i, id);
+                }
+            }
+
+            // 2. Compacta cadeias sem ramificação e calcula o top-k de cada nó (ids menores = mais populares)
+            root.compact();
+            root.computeTop();
+
+            // 3. Achata em arrays (BFS mantém os filhos de cada nó contíguos)
+            List<BuildNode> nodes = new ArrayList<>();
+            nodes.add(root);
+            for (int n = 0; n < nodes.size(); n++) {
+                nodes.addAll(nodes.get(n).children.values());
+            }
+            int count = nodes.size();
+            int[] labelStart = new int[count];
+            int[] labelLength = new int[count];
+            int[] firstChild = new int[count];
+            int[] childCount = new int[count];
+            int[] topStart = new int[count];
+            int[] topLength = new int[count];
+            List<Integer> top = new ArrayList<>();
+            StringBuilder labels = new StringBuilder();
+
+            int next = 1;
+            for (int n = 0; n < count; n++) {
+                BuildNode node = nodes.get(n);
+                labelStart[n] = labels.length();
+                labelLength[n] = node.label.length();
+                labels.append(node.label);
+                firstChild[n] = next;
+                childCount[n] = node.children.size();
+                next += node.children.size();
+                topStart[n] = top.size();
+                topLength[n] = node.top.length;
+                for (int id : node.top) top.add(id);
+            }
+            return new CompactTrie(labels.toString().toCharArray(), labelStart, labelLength, firstChild, childCount,
+                    topStart, topLength, top.stream().mapToInt(Integer::intValue).toArray(), suggestions);
+        }
+
+        private static final class BuildNode {
+            private String label;
+            private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+            private final List<Integer> terms = new ArrayList<>(1);
+            private int[] top;
+
+            BuildNode(String label) {
+                this.label = label;
+            }
+
+            void insert(String key, int from, int id) {
+                BuildNode node = this;
+                for (int i = from; i < key.length(); i++) {
+                    char c = key.charAt(i);
+                    node = node.children.computeIfAbsent(c, k -> new BuildNode(String.valueOf(k)));
+                }
+                if (!node.terms.contains(id)) node.terms.add(id);
+            }
+
+            void compact() {
+                for (BuildNode child : children.values()) {
+                    while (child.terms.isEmpty() && child.children.size() == 1) {
+                        BuildNode only = child.children.firstEntry().getValue();
+                        child.label += only.label;
+                        child.children.clear();
+                        child.children.putAll(only.children);
+                        child.terms.addAll(only.terms);
+                    }
+                    child.compact();
+                }
+            }
+
+            int[] computeTop() {
+                TreeSet<Integer> best = new TreeSet<>(terms);
+                for (BuildNode child : children.values()) {
+                    for (int id : child.computeTop()) best.add(id);
+                }
+                top = best.stream().limit(TOP_K).mapToInt(Integer::intValue).toArray();
+                return top;
+            }
+        }
+    }
+}
+
+// ================= PLACAR LOCAL (Snapshot por Liga) =================
+
+// Placar compacto de um jogo (/scores e stream SSE)
+record ScoreLine(
+        String id,
+        String home,
+        String away,
+        @JsonProperty("home_score") String homeScore,
+        @JsonProperty("away_score") String awayScore,
+        String clock,
+        Integer period,
+        String state,
+        String detail) {}
+
+/**
+ * Placar de uma liga como foi visto na última consulta à ESPN.
+ * version cresce a cada mudança; changedAt guarda a versão em que cada jogo mudou pela
+ * última vez e resetVersion a última versão em que jogos saíram do placar (troca de dia).
+ */
+record LeagueScores(
+        String league,
+        long version,
+        long resetVersion,
+        Instant updatedAt,
+        List<ScoreLine> events,
+        Map<String, Long> changedAt) {
+
+    // Jogos que mudaram depois do cursor; null quando o cursor não serve mais (precisa do placar inteiro)
+    List<ScoreLine> changesSince(long since) {
+        if (since < resetVersion || since > version) return null;
+        List<ScoreLine> changed = new ArrayList<>();
+        for (ScoreLine line : events) {
+            if (changedAt.getOrDefault(line.id(), 0L) > since) changed.add(line);
+        }
+        return changed;
+    }
+}
+
+// Resposta de /scores: o snapshot mais a idade dele no momento da requisição
+record ScoresResponse(
+        String league,
+        long version,
+        @JsonProperty("updated_at") Instant updatedAt,
+        @JsonProperty("age_ms") Long ageMs,
+        List<ScoreLine> events) {}
+
+// Resposta de /scores/changes; reset = true traz o placar inteiro e o cliente deve substituir o seu
+record ScoreChanges(
+        String league,
+        long version,
+        boolean reset,
+        List<ScoreLine> events) {}
+
+// Publicado quando jogos de uma liga mudaram em relação ao snapshot anterior
+record ScoresChanged(String league, List<ScoreLine> changed) {}
+
+/**
+ * Placares locais por liga. Quem consulta a ESPN (o sync de cada liga e o poll do stream
+ * SSE) grava aqui; /scores só lê o snapshot imutável da liga, então a requisição nunca
+ * espera a rede. Ligas ainda sem snapshot disparam um sync em segundo plano.
+ */
+@Component
+class LiveScoreStore {
+    private final ApplicationEventPublisher events;
+    private final Map<String, LeagueScores> scores = new ConcurrentHashMap<>();
+
+    public LiveScoreStore(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
+    public Optional<LeagueScores> get(String leagueId) {
+        return Optional.ofNullable(scores.get(leagueId));
+    }
+
+    public void update(League league, List<EspnGame> games) {
+        List<ScoreLine> lines = toScoreLines(games);
+        List<ScoreLine> changed = new ArrayList<>();
+        scores.compute(league.id(), (id, previous) -> {
+            Map<String, ScoreLine> before = new HashMap<>();
+            if (previous != null) previous.events().forEach(l -> before.put(l.id(), l));
+
+            Set<String> changedIds = new HashSet<>();
+            for (ScoreLine line : lines) {
+                if (!line.equals(before.remove(line.id()))) {
+                    changed.add(line);
+                    changedIds.add(line.id());
+                }
+            }
+            // O que sobrou em "before" saiu do placar
+            boolean removed = !before.isEmpty();
+
+            long version = previous == null ? 0 : previous.version();
+            long resetVersion = previous == null ? 0 : previous.resetVersion();
+            if (!changed.isEmpty() || removed) version++;
+            if (removed) resetVersion = version;
+
+            Map<String, Long> changedAt = new HashMap<>();
+            for (ScoreLine line : lines) {
+                Long at = previous == null ? null : previous.changedAt().get(line.id());
+                changedAt.put(line.id(), at == null || changedIds.contains(line.id()) ? version : at);
+            }
+            return new LeagueScores(id, version, resetVersion, Instant.now(), lines, Map.copyOf(changedAt));
+        });
+        if (!changed.isEmpty()) events.publishEvent(new ScoresChanged(league.id(), changed));
+    }
+
+    static List<ScoreLine> toScoreLines(List<EspnGame> games) {
+        List<ScoreLine> lines = new ArrayList<>(games.size());
+        for (EspnGame game : games) {
+            EspnSide home = game.home();
+            EspnSide away = game.away();
+            lines.add(new ScoreLine(
+                    game.id(),
+                    home != null ? home.label() : null, away != null ? away.label() : null,
+                    home != null ? home.score() : null, away != null ? away.score() : null,
+                    game.clock(), game.period(), game.state(), game.detail()));
+        }
+        return List.copyOf(lines);
+    }
+}
+
+// ================= PLACAR AO VIVO (SSE Fan-out) =================
+
+record ScoreMessage(String league, List<ScoreLine> events) {}
+
+/**
+ * Distribui placares ao vivo por Server-Sent Events.
+ * O backend consulta a ESPN uma vez por liga com assinantes (tvlabs.live.poll-interval),
+ * grava no LiveScoreStore e envia apenas os jogos que mudaram. Cada conexão tem uma fila limitada e uma virtual
+ * thread própria para escrita: um cliente lento só atrasa a si mesmo. Se a fila estoura,
+ * as mensagens pendentes são descartadas e o cliente recebe um snapshot completo;
+ * clientes que estouram mais de max-overflows vezes dentro de overflow-window são desconectados
+ * (atrasos esporádicos, horas distantes entre si, não derrubam uma conexão longa).
+ */
+@Component
+class LiveScoreHub {
+    private static final Object RESYNC = new Object();
+    private static final Object HEARTBEAT = new Object();
+
+    private final ScoreService scoreService;
+    private final LeagueRegistry leagueRegistry;
+    private final LiveScoreStore store;
+    private final int queueCapacity;
+    private final int maxOverflows;
+    private final long overflowWindowNanos;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LiveScoreHub(ScoreService scoreService, LeagueRegistry leagueRegistry, LiveScoreStore store,
+            @Value("${tvlabs.live.queue-capacity:32}") int queueCapacity,
+            @Value("${tvlabs.live.max-overflows:3}") int maxOverflows,
+            @Value("${tvlabs.live.overflow-window:10m}") Duration overflowWindow) {
+        this.scoreService = scoreService;
+        this.leagueRegistry = leagueRegistry;
+        this.store = store;
+        this.queueCapacity = queueCapacity;
+        this.maxOverflows = maxOverflows;
+        this.overflowWindowNanos = overflowWindow.toNanos();
+    }
+
+    public SseEmitter subscribe(String sport, String slug, String eventId) {
+        League league = leagueRegistry.find(sport, slug)
+                .orElseThrow(() -> new IllegalArgumentException("Liga desconhecida: " + sport + "/" + slug));
+
+        SseEmitter emitter = new SseEmitter(Duration.ofMinutes(30).toMillis());
+        Subscriber subscriber = new Subscriber(league.id(), eventId, emitter);
+        subscribers.computeIfAbsent(league.id(), id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        subscriber.enqueue(RESYNC); // Estado atual logo na conexão
+        executor.execute(subscriber::drain);
+        return emitter;
+    }
+
+    public Set<String> activeLeagues() {
+        return subscribers.keySet();
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Scheduled(fixedDelayString = "${tvlabs.live.poll-interval:5s}")
+    public void poll() {
+        List<Future<?>> pending = new ArrayList<>();
+        for (String leagueId : subscribers.keySet()) {
+            leagueRegistry.find(leagueId).ifPresent(league -> pending.add(executor.submit(() -> refresh(league))));
+        }
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                System.err.println("Erro ao atualizar placar ao vivo: " + e.getCause());
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${tvlabs.live.heartbeat-interval:15s}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(s -> s.enqueue(HEARTBEAT)));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::close));
+        executor.shutdownNow();
+    }
+
+    @SuppressWarnings("UseSpecificCatch")
+    private void refresh(League league) {
+        try {
+            store.update(league, scoreService.fetchScoreboard(league));
+        } catch (Exception e) {
+            System.err.println("Erro ao consultar placar de " + league.id() + ": " + e.getMessage());
+        }
+    }
+
+    // Mudanças vindas do poll acima ou do sync da liga
+    @EventListener
+    public void onScoresChanged(ScoresChanged changed) {
+        Set<Subscriber> targets = subscribers.get(changed.league());
+        if (targets == null) return;
+        ScoreMessage delta = new ScoreMessage(changed.league(), changed.changed());
+        targets.forEach(s -> s.enqueue(delta));
+    }
+
+    private class Subscriber {
+        private final String leagueId;
+        private final String eventId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final ReentrantLock overflowLock = new ReentrantLock();
+        private long windowStart;
+        private int overflows;
+        private volatile boolean closed;
+
+        Subscriber(String leagueId, String eventId, SseEmitter emitter) {
+            this.leagueId = leagueId;
+            this.eventId = eventId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Object message) {
+            if (closed || queue.offer(message)) return;
+            // Fila cheia: descarta o atraso acumulado e agenda um snapshot completo
+            if (tooManyOverflows()) {
+                emitter.complete();
+                close();
+                return;
+            }
+            queue.clear();
+            queue.offer(RESYNC);
+        }
+
+        // Conta estouros numa janela fixa: a primeira falha depois de overflow-window recomeça do zero
+        private boolean tooManyOverflows() {
+            long now = System.nanoTime();
+            overflowLock.lock();
+            try {
+                if (overflows == 0 || now - windowStart > overflowWindowNanos) {
+                    windowStart = now;
+                    overflows = 0;
+                }
+                return ++overflows > maxOverflows;
+            } finally {
+                overflowLock.unlock();
+            }
+        }
+
+        void drain() {
+            try {
+                while (!closed) {
+                    Object message = queue.take();
+                    if (message == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else if (message == RESYNC) {
+                        List<ScoreLine> all = store.get(leagueId).map(LeagueScores::events).orElse(List.of());
+                        send("snapshot", new ScoreMessage(leagueId, filter(all)));
+                    } else {
+                        List<ScoreLine> lines = filter(((ScoreMessage) message).events());
+                        if (!lines.isEmpty()) send("score", new ScoreMessage(leagueId, lines));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectou
+            } finally {
+                close();
+            }
+        }
+
+        private void send(String name, ScoreMessage message) throws IOException {
+            emitter.send(SseEmitter.event().name(name).data(message, MediaType.APPLICATION_JSON));
+        }
+
+        private List<ScoreLine> filter(List<ScoreLine> lines) {
+            if (eventId == null) return lines;
+            return lines.stream().filter(l -> eventId.equals(l.id())).toList();
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            queue.offer(HEARTBEAT); // Acorda a thread de escrita
+            subscribers.computeIfPresent(leagueId, (id, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+}
+
+// ================= CLIENTE HTTP EXTERNO (Pool / HTTP/2) =================
+
+/**
+ * Camada de saída HTTP baseada no java.net.http.HttpClient (keep-alive, pool de conexões
+ * e multiplexação HTTP/2). Cada tipo de chamada ("sync", "proxy") tem seu próprio pool
+ * configurável em tvlabs.http.<tipo>.*:
+ * - connect-timeout: estabelecimento da conexão TCP/TLS
+ * - read-timeout: espera pelos cabeçalhos da resposta
+ * - total-timeout: prazo total da chamada (fila + resposta + leitura do corpo)
+ * - max-per-host / bulkhead-wait: requisições simultâneas por destino e quanto esperar por uma vaga
+ * - breaker-failures / breaker-open: falhas seguidas que abrem o circuito do host e por quanto tempo
+ * - hedge-delay / max-attempts / retry-backoff: GETs idempotentes (ver OutboundPool.get)
+ */
+@Component
+class OutboundHttp {
+    private final Environment env;
+    private final Metrics metrics;
+    private final Map<String, OutboundPool> pools = new ConcurrentHashMap<>();
+
+    public OutboundHttp(Environment env, Metrics metrics) {
+        this.env = env;
+        this.metrics = metrics;
+    }
+
+    public OutboundPool pool(String callType) {
+        return pools.computeIfAbsent(callType, name -> new OutboundPool(name, metrics, new OutboundPool.Settings(
+                duration(name, "connect-timeout", Duration.ofSeconds(2)),
+                duration(name, "read-timeout", Duration.ofSeconds(5)),
+                duration(name, "total-timeout", Duration.ofSeconds(10)),
+                env.getProperty("tvlabs.http." + name + ".max-per-host", Integer.class, 16),
+                duration(name, "bulkhead-wait", Duration.ofMillis(100)),
+                env.getProperty("tvlabs.http." + name + ".breaker-failures", Integer.class, 5),
+                duration(name, "breaker-open", Duration.ofSeconds(30)),
+                duration(name, "hedge-delay", Duration.ZERO),
+                env.getProperty("tvlabs.http." + name + ".max-attempts", Integer.class, 1),
+                duration(name, "retry-backoff", Duration.ofMillis(200)))));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new TreeMap<>();
+        pools.forEach((name, pool) -> stats.put(name, pool.stats()));
+        return stats;
+    }
+
+    private Duration duration(String pool, String key, Duration fallback) {
+        return env.getProperty("tvlabs.http." + pool + "." + key, Duration.class, fallback);
+    }
+}
+
+// Falha rápida sem tocar a rede: circuito aberto ou bulkhead do host cheio
+class UpstreamUnavailableException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
+
+/**
+ * Pool de um tipo de chamada. O interceptor protege cada host com:
+ * - bulkhead: no máximo max-per-host chamadas simultâneas; quem não consegue vaga em
+ *   bulkhead-wait falha na hora em vez de ocupar a thread esperando
+ * - circuit breaker: breaker-failures falhas seguidas (erro de I/O, 5xx ou prazo estourado)
+ *   abrem o circuito por breaker-open; depois disso uma única chamada de teste decide se fecha
+ * A permissão do bulkhead só é devolvida quando o corpo da resposta é fechado.
+ */
+class OutboundPool implements ClientHttpRequestInterceptor {
+    record Settings(
+            Duration connectTimeout,
+            Duration readTimeout,
+            Duration totalTimeout,
+            int maxPerHost,
+            Duration bulkheadWait,
+            int breakerFailures,
+            Duration breakerOpen,
+            Duration hedgeDelay,
+            int maxAttempts,
+            Duration retryBackoff) {}
+
+    private final String name;
+    private final Metrics metrics;
+    private final Settings settings;
+    private final HttpClient client;
+    private final ConcurrentHashMap<String, Semaphore> perHost = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final ExecutorService attempts = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong queueTimeouts = new AtomicLong();
+    private final AtomicLong deadlineExceeded = new AtomicLong();
+    private final AtomicLong shortCircuited = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    OutboundPool(String name, Metrics metrics, Settings settings) {
+        this.name = name;
+        this.metrics = metrics;
+        this.settings = settings;
+        // As etapas assíncronas internas do HttpClient (entrega de cabeçalhos e corpo) também rodam em
+        // virtual threads: milhares de chamadas em voo não viram milhares de threads de plataforma
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .executor(attempts)
+                .connectTimeout(settings.connectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    public RestTemplate restTemplate() {
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(client);
+        factory.setReadTimeout(settings.readTimeout());
+        RestTemplate restTemplate = new RestTemplate(factory);
+        restTemplate.getInterceptors().add(this);
+        return restTemplate;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String host = request.getURI().getHost();
+        long start = System.nanoTime();
+        long deadline = start + settings.totalTimeout().toNanos();
+        CircuitBreaker breaker = breakers.computeIfAbsent(host, h -> new CircuitBreaker(settings.breakerFailures(), settings.breakerOpen()));
+        Semaphore slots = perHost.computeIfAbsent(host, h -> new Semaphore(settings.maxPerHost()));
+        requests.incrementAndGet();
+
+        if (!breaker.allow()) {
+            shortCircuited.incrementAndGet();
+            record(host, "SHORT_CIRCUITED", start);
+            throw new UpstreamUnavailableException("Circuito aberto para " + host + " (pool " + name + ")");
+        }
+        try {
+            if (!slots.tryAcquire(settings.bulkheadWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                queueTimeouts.incrementAndGet();
+                breaker.release();
+                record(host, "BULKHEAD_FULL", start);
+                throw new UpstreamUnavailableException("Sem vaga para " + host + " (pool " + name + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            breaker.release();
+            throw new InterruptedIOException("Interrompido aguardando conexão");
+        }
+
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            if (cancelled(e)) {
+                // Tentativa perdedora de um hedge (ou chamada abandonada): não diz nada sobre o host
+                breaker.release();
+                record(host, "CANCELLED", start);
+                throw e;
+            }
+            failures.incrementAndGet();
+            breaker.onFailure();
+            record(host, "IO_ERROR", start);
+            throw e;
+        }
+        record(host, Integer.toString(response.getStatusCode().value()), start);
+        if (response.getStatusCode().is5xxServerError()) {
+            failures.incrementAndGet();
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+        return new DeadlineResponse(response, deadline, slots, breaker);
+    }
+
+    /**
+     * Variante não bloqueante do intercept, usada pelo modo "reactive" do proxy: mesmo circuit
+     * breaker e métricas, mas o bulkhead não espera (sem vaga falha na hora) e nenhuma thread fica
+     * parada aguardando o upstream. A vaga volta quando o corpo termina (ou falha).
+     */
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(java.net.http.HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        String host = request.uri().getHost();
+        long start = System.nanoTime();
+        CircuitBreaker breaker = breakers.computeIfAbsent(host, h -> new CircuitBreaker(settings.breakerFailures(), settings.breakerOpen()));
+        Semaphore slots = perHost.computeIfAbsent(host, h -> new Semaphore(settings.maxPerHost()));
+        requests.incrementAndGet();
+
+        if (!breaker.allow()) {
+            shortCircuited.incrementAndGet();
+            record(host, "SHORT_CIRCUITED", start);
+            return CompletableFuture.failedFuture(new UpstreamUnavailableException("Circuito aberto para " + host + " (pool " + name + ")"));
+        }
+        if (!slots.tryAcquire()) {
+            queueTimeouts.incrementAndGet();
+            breaker.release();
+            record(host, "BULKHEAD_FULL", start);
+            return CompletableFuture.failedFuture(new UpstreamUnavailableException("Sem vaga para " + host + " (pool " + name + ")"));
+        }
+
+        AtomicBoolean headers = new AtomicBoolean();
+        return client.sendAsync(request, info -> {
+            headers.set(true);
+            record(host, Integer.toString(info.statusCode()), start);
+            if (info.statusCode() >= 500) {
+                failures.incrementAndGet();
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+            return handler.apply(info);
+        }).whenComplete((response, error) -> {
+            slots.release();
+            if (error != null && !headers.get()) {
+                failures.incrementAndGet();
+                breaker.onFailure();
+                record(host, "IO_ERROR", start);
+            }
+        });
+    }
+
+    public Settings settings() {
+        return settings;
+    }
+
+    // Tempo até os cabeçalhos (ou até a falha rápida); a leitura do corpo fica de fora
+    private void record(String host, String status, long start) {
+        metrics.timer("tvlabs_outbound_requests_seconds", "Chamadas HTTP de saída por pool, host e status",
+                "pool", name, "host", host, "status", status)
+                .recordNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * GET idempotente com hedge e retry. Se a primeira tentativa não responde em hedge-delay,
+     * uma segunda é disparada em paralelo e vale a que chegar primeiro; tentativas que falham
+     * são refeitas após um backoff exponencial com jitter, até max-attempts no total.
+     * Falhas rápidas (circuito aberto, bulkhead cheio) e erros 4xx não são repetidos.
+     */
+    public <T> T get(Callable<T> attempt) {
+        if (settings.maxAttempts() <= 1) return call(attempt);
+
+        CompletionService<T> racing = new ExecutorCompletionService<>(attempts);
+        List<Future<T>> launched = new ArrayList<>();
+        launched.add(racing.submit(attempt));
+        int pending = 1;
+        RuntimeException lastError = null;
+        try {
+            while (pending > 0) {
+                boolean canLaunch = launched.size() < settings.maxAttempts();
+                Future<T> done = canLaunch && !settings.hedgeDelay().isZero()
+                        ? racing.poll(jitter(settings.hedgeDelay()).toNanos(), TimeUnit.NANOSECONDS)
+                        : racing.take();
+                if (done == null) {
+                    hedges.incrementAndGet();
+                    launched.add(racing.submit(attempt));
+                    pending++;
+                    continue;
+                }
+                pending--;
+                try {
+                    return done.get();
+                } catch (ExecutionException e) {
+                    lastError = unwrap(e.getCause());
+                    if (!retryable(e.getCause())) throw lastError;
+                }
+                if (pending == 0 && launched.size() < settings.maxAttempts()) {
+                    retries.incrementAndGet();
+                    Thread.sleep(backoff(launched.size()).toMillis());
+                    launched.add(racing.submit(attempt));
+                    pending++;
+                }
+            }
+            throw lastError;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrompido aguardando " + name);
+        } finally {
+            launched.forEach(f -> f.cancel(true));
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> active = new TreeMap<>();
+        perHost.forEach((host, slots) -> active.put(host, settings.maxPerHost() - slots.availablePermits()));
+        Map<String, Object> circuits = new TreeMap<>();
+        breakers.forEach((host, breaker) -> circuits.put(host, breaker.state()));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("protocol", client.version().name());
+        stats.put("read_timeout_ms", settings.readTimeout().toMillis());
+        stats.put("total_timeout_ms", settings.totalTimeout().toMillis());
+        stats.put("max_per_host", settings.maxPerHost());
+        stats.put("active_per_host", active);
+        stats.put("circuits", circuits);
+        stats.put("requests", requests.get());
+        stats.put("failures", failures.get());
+        stats.put("queue_timeouts", queueTimeouts.get());
+        stats.put("deadline_exceeded", deadlineExceeded.get());
+        stats.put("short_circuited", shortCircuited.get());
+        stats.put("hedges", hedges.get());
+        stats.put("retries", retries.get());
+        return stats;
+    }
+
+    private static <T> T call(Callable<T> attempt) {
+        try {
+            return attempt.call();
+        } catch (Exception e) {
+            throw unwrap(e);
+        }
+    }
+
+    // Interrupção vinda de Future.cancel(true) no get(); SocketTimeoutException também é InterruptedIOException, mas é falha real
+    private static boolean cancelled(Throwable error) {
+        if (Thread.currentThread().isInterrupted()) return true;
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedException || t instanceof CancellationException
+                    || (t instanceof InterruptedIOException && !(t instanceof SocketTimeoutException))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean retryable(Throwable error) {
+        if (error instanceof HttpClientErrorException) return false;
+        Throwable cause = error instanceof ResourceAccessException ? error.getCause() : error;
+        return !(cause instanceof UpstreamUnavailableException) && !(cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException));
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        if (error instanceof RuntimeException re) return re;
+        if (error instanceof IOException io) return new ResourceAccessException(io.getMessage(), io);
+        return new IllegalStateException(error);
+    }
+
+    // ±20% no atraso do hedge para as réplicas não dispararem em sincronia
+    private static Duration jitter(Duration base) {
+        long nanos = base.toNanos();
+        return Duration.ofNanos(nanos + ThreadLocalRandom.current().nextLong(-nanos / 5, nanos / 5 + 1));
+    }
+
+    // Backoff exponencial com jitter "full": aleatório entre 0 e base * 2^(tentativa-1)
+    private Duration backoff(int attempt) {
+        long cap = settings.retryBackoff().toMillis() << Math.min(attempt - 1, 10);
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(cap + 1));
+    }
+
+    /**
+     * Circuito de um host. CLOSED conta falhas seguidas; OPEN rejeita até o prazo acabar;
+     * HALF_OPEN deixa passar uma única chamada de teste. Estado pequeno sob lock, sem I/O.
+     */
+    static final class CircuitBreaker {
+        private final int failuresToOpen;
+        private final Duration openFor;
+        private final ReentrantLock lock = new ReentrantLock();
+        private String state = "CLOSED";
+        private int consecutiveFailures;
+        private long openUntil;
+        private boolean probing;
+
+        CircuitBreaker(int failuresToOpen, Duration openFor) {
+            this.failuresToOpen = failuresToOpen;
+            this.openFor = openFor;
+        }
+
+        boolean allow() {
+            lock.lock();
+            try {
+                if ("CLOSED".equals(state)) return true;
+                if ("OPEN".equals(state)) {
+                    if (System.nanoTime() - openUntil < 0) return false;
+                    state = "HALF_OPEN";
+                    probing = false;
+                }
+                if (probing) return false;
+                probing = true;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Chamada liberada mas não executada (ex.: bulkhead cheio): devolve a vaga de teste
+        void release() {
+            lock.lock();
+            try {
+                probing = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void onSuccess() {
+            lock.lock();
+            try {
+                state = "CLOSED";
+                consecutiveFailures = 0;
+                probing = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void onFailure() {
+            lock.lock();
+            try {
+                consecutiveFailures++;
+                probing = false;
+                if ("HALF_OPEN".equals(state) || consecutiveFailures >= failuresToOpen) {
+                    state = "OPEN";
+                    openUntil = System.nanoTime() + openFor.toNanos();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        String state() {
+            lock.lock();
+            try {
+                return state;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Resposta que devolve a permissão do host ao fechar e interrompe leituras após o prazo total
+    private class DeadlineResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final long deadline;
+        private final Semaphore slots;
+        private final CircuitBreaker breaker;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final AtomicBoolean overrun = new AtomicBoolean();
+
+        DeadlineResponse(ClientHttpResponse delegate, long deadline, Semaphore slots, CircuitBreaker breaker) {
+            this.delegate = delegate;
+            this.deadline = deadline;
+            this.slots = slots;
+            this.breaker = breaker;
+        }
+
+        @Override public HttpStatusCode getStatusCode() throws IOException { return delegate.getStatusCode(); }
+        @Override public String getStatusText() throws IOException { return delegate.getStatusText(); }
+        @Override public HttpHeaders getHeaders() { return delegate.getHeaders(); }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return new FilterInputStream(delegate.getBody()) {
+                @Override
+                public int read() throws IOException {
+                    checkDeadline();
+                    return super.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    checkDeadline();
+                    return super.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) slots.release();
+            }
+        }
+
+        private void checkDeadline() throws IOException {
+            if (System.nanoTime() - deadline > 0) {
+                // Uma resposta lenta conta uma falha só, por mais leituras que ainda tente
+                if (overrun.compareAndSet(false, true)) {
+                    deadlineExceeded.incrementAndGet();
+                    breaker.onFailure();
+                }
+                throw new SocketTimeoutException("Prazo total de " + settings.totalTimeout().toMillis() + "ms excedido (pool " + name + ")");
+            }
+        }
+    }
+}
+
+// ================= CACHE DO PROXY =================
+
+/**
+ * Cache em memória das respostas do /proxy.
+ * - Chave: URL normalizada (esquema/host em minúsculas, parâmetros ordenados)
+ * - TTL por host/caminho (placar curto, tabela e elenco longos)
+ * - Limite total em bytes com despejo LRU
+ * - Single-flight: misses simultâneos da mesma URL compartilham uma única chamada externa
+ * - Stale-while-revalidate: por stale-ttl após expirar, a cópia antiga é servida na hora enquanto
+ *   uma única atualização roda em segundo plano; se o upstream falhar, a cópia antiga continua valendo
+ */
+@Component
+class ProxyCache {
+    private final long maxBytes;
+    private final Duration defaultTtl;
+    private final Duration staleTtl;
+    private final List<TtlRule> ttlRules = new ArrayList<>();
+
+    // LinkedHashMap em ordem de acesso = LRU; protegido por lock (nunca há I/O dentro dele)
+    private final LinkedHashMap<String, CachedBody> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long currentBytes;
+
+    private final ConcurrentHashMap<String, CompletableFuture<CachedBody>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong staleServed = new AtomicLong();
+    private final AtomicLong revalidationFailures = new AtomicLong();
+
+    public ProxyCache(
+            @Value("${tvlabs.proxy.cache.max-bytes:67108864}") long maxBytes,
+            @Value("${tvlabs.proxy.cache.default-ttl:60s}") Duration defaultTtl,
+            @Value("${tvlabs.proxy.cache.stale-ttl:10m}") Duration staleTtl,
+            @Value("${tvlabs.proxy.cache.ttl-rules:}") List<String> rules) {
+        this.maxBytes = maxBytes;
+        this.defaultTtl = defaultTtl;
+        this.staleTtl = staleTtl;
+        // Formato: "host/trecho-do-caminho=duração" (ex.: site.api.espn.com/scoreboard=15s)
+        for (String rule : rules) {
+            if (rule.isBlank()) continue;
+            String[] parts = rule.trim().split("=", 2);
+            String[] target = parts[0].split("/", 2);
+            ttlRules.add(new TtlRule(target[0].toLowerCase(), target.length > 1 ? "/" + target[1] : "", DurationStyle.detectAndParse(parts[1])));
+        }
+    }
+
+    /**
+     * Retorna a resposta em cache para a URL, ou carrega uma única vez via loader.
+     * O variant separa representações diferentes da mesma URL (ex.: gzip vs identity).
+     */
+    public ProxyPayload get(String url, String variant, Supplier<ProxyPayload> loader) {
+        String key = normalize(url) + "#" + variant;
+        long now = System.nanoTime();
+
+        CachedBody cached = lookup(key, now);
+        if (cached != null && cached.expiresAt() - now > 0) {
+            hits.incrementAndGet();
+            return cached.payload();
+        }
+        if (cached != null) {
+            // Vencida mas dentro da janela stale: responde já e atualiza em segundo plano
+            staleServed.incrementAndGet();
+            CompletableFuture<CachedBody> mine = new CompletableFuture<>();
+            if (inFlight.putIfAbsent(key, mine) == null) {
+                Thread.ofVirtual().name("proxy-revalidate").start(() -> {
+                    try {
+                        load(key, loader, mine);
+                    } catch (RuntimeException e) {
+                        revalidationFailures.incrementAndGet();
+                        System.err.println("Revalidação falhou para " + key + ": " + e.getMessage());
+                    }
+                });
+            }
+            return cached.payload();
+        }
+
+        CompletableFuture<CachedBody> mine = new CompletableFuture<>();
+        CompletableFuture<CachedBody> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.incrementAndGet();
+            return await(leader).payload();
+        }
+
+        misses.incrementAndGet();
+        return load(key, loader, mine).payload();
+    }
+
+    private CachedBody load(String key, Supplier<ProxyPayload> loader, CompletableFuture<CachedBody> mine) {
+        try {
+            ProxyPayload payload = loader.get();
+            long now = System.nanoTime();
+            long expiresAt = now + ttlFor(key).toNanos();
+            CachedBody fresh = new CachedBody(payload, expiresAt, expiresAt + staleTtl.toNanos());
+            store(key, fresh);
+            mine.complete(fresh);
+            return fresh;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        lock.lock();
+        try {
+            return Map.of(
+                "entries", entries.size(),
+                "bytes", currentBytes,
+                "max_bytes", maxBytes,
+                "hits", hits.get(),
+                "misses", misses.get(),
+                "coalesced", coalesced.get(),
+                "evictions", evictions.get(),
+                "stale_served", staleServed.get(),
+                "revalidation_failures", revalidationFailures.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CachedBody lookup(String key, long now) {
+        lock.lock();
+        try {
+            CachedBody entry = entries.get(key);
+            if (entry == null) return null;
+            if (entry.staleUntil() - now <= 0) {
+                entries.remove(key);
+                currentBytes -= weight(key, entry);
+                return null;
+            }
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(String key, CachedBody entry) {
+        long size = weight(key, entry);
+        if (size > maxBytes) return; // Maior que o cache inteiro: não vale a pena guardar
+
+        lock.lock();
+        try {
+            CachedBody previous = entries.put(key, entry);
+            if (previous != null) currentBytes -= weight(key, previous);
+            currentBytes += size;
+
+            Iterator<Map.Entry<String, CachedBody>> it = entries.entrySet().iterator();
+            while (currentBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, CachedBody> eldest = it.next();
+                currentBytes -= weight(eldest.getKey(), eldest.getValue());
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Duration ttlFor(String key) {
+        URI uri = URI.create(key);
+        String host = uri.getHost() == null ? "" : uri.getHost();
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        for (TtlRule rule : ttlRules) {
+            if (host.endsWith(rule.host()) && path.contains(rule.pathFragment())) return rule.ttl();
+        }
+        return defaultTtl;
+    }
+
+    // Corpo em bytes + chave (chars de 2 bytes) + overhead fixo dos cabeçalhos
+    private static long weight(String key, CachedBody entry) {
+        return entry.payload().body().length + 2L * key.length() + 128;
+    }
+
+    private static CachedBody await(CompletableFuture<CachedBody> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    static String normalize(String url) {
+        URI uri = URI.create(url.trim());
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            throw new IllegalArgumentException("URL inválida: " + url);
+        }
+        String scheme = uri.getScheme().toLowerCase();
+        int port = uri.getPort();
+        boolean defaultPort = port == -1 || ("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443);
+
+        StringBuilder sb = new StringBuilder(url.length())
+                .append(scheme).append("://").append(uri.getHost().toLowerCase());
+        if (!defaultPort) sb.append(':').append(port);
+        sb.append(uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath());
+
+        String query = uri.getRawQuery();
+        if (query != null && !query.isEmpty()) {
+            String[] params = query.split("&");
+            Arrays.sort(params);
+            sb.append('?').append(String.join("&", params));
+        }
+        return sb.toString();
+    }
+
+    private record TtlRule(String host, String pathFragment, Duration ttl) {}
+    private record CachedBody(ProxyPayload payload, long expiresAt, long staleUntil) {}
+}
+
+// Resposta externa materializada (corpo bruto, possivelmente gzip) + cabeçalhos relevantes
+record ProxyPayload(byte[] body, String contentType, String contentEncoding, String etag, String lastModified) {}
+
+// ================= PROXY (Streaming / Cache) =================
+
+/**
+ * Encaminha respostas externas sem converter para String.
+ * - Modo "cached": o corpo bruto fica no ProxyCache e é escrito direto no output stream
+ * - Modo "stream": copia os bytes do upstream para o cliente com buffer fixo, sem cache
+ * - Modo "reactive": como o stream, mas sem thread parada; o HttpClient entrega o corpo em
+ *   pedaços (Flow) e cada pedaço só é pedido quando o cliente já consumiu o anterior
+ * Em todos os modos Content-Type/Content-Encoding do upstream são preservados (gzip passa
+ * sem descompressão) e requisições condicionais (ETag / Last-Modified) retornam 304.
+ */
+@Service
+class ProxyService {
+    private static final String RELAY_ERROR = ProxyService.class.getName() + ".RELAY_ERROR";
+
+    private final RestTemplate restTemplate;
+    private final OutboundPool pool;
+    private final ProxyCache cache;
+    private final boolean streamMode;
+    private final boolean reactiveMode;
+    private final int bufferSize;
+
+    public ProxyService(@Qualifier("proxyRestTemplate") RestTemplate restTemplate, OutboundHttp outboundHttp, ProxyCache cache,
+            @Value("${tvlabs.proxy.mode:cached}") String mode,
+            @Value("${tvlabs.proxy.buffer-size:16384}") int bufferSize) {
+        this.restTemplate = restTemplate;
+        this.pool = outboundHttp.pool("proxy");
+        this.cache = cache;
+        this.streamMode = "stream".equalsIgnoreCase(mode);
+        this.reactiveMode = "reactive".equalsIgnoreCase(mode);
+        this.bufferSize = bufferSize;
+    }
+
+    public void serve(String url, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC && request.getAttribute(RELAY_ERROR) instanceof Throwable failure) {
+            throw new IOException("Stream do /proxy interrompido: " + failure.getMessage(), failure);
+        }
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (reactiveMode) {
+            relay(url, gzip, request, response);
+        } else if (streamMode) {
+            stream(url, gzip, request, response);
+        } else {
+            ProxyPayload payload = cache.get(url, gzip ? "gzip" : "identity", () -> fetch(url, gzip));
+            write(payload, request, response);
+        }
+    }
+
+    // Só o modo cached usa hedge/retry: no modo stream os bytes já foram para o cliente
+    private ProxyPayload fetch(String url, boolean gzip) {
+        return pool.get(() -> restTemplate.execute(url, HttpMethod.GET,
+                req -> req.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, gzip ? "gzip" : "identity"),
+                res -> {
+                    byte[] body = StreamUtils.copyToByteArray(res.getBody());
+                    HttpHeaders headers = res.getHeaders();
+                    String etag = headers.getETag() != null ? headers.getETag() : "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+                    return new ProxyPayload(body, headers.getFirst(HttpHeaders.CONTENT_TYPE),
+                            headers.getFirst(HttpHeaders.CONTENT_ENCODING), etag, headers.getFirst(HttpHeaders.LAST_MODIFIED));
+                }));
+    }
+
+    private void write(ProxyPayload payload, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        applyHeaders(response, payload.contentType(), payload.contentEncoding(), payload.etag(), payload.lastModified());
+        if (notModified(request, payload.etag(), payload.lastModified())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentLength(payload.body().length);
+        response.getOutputStream().write(payload.body());
+    }
+
+    private void stream(String url, boolean gzip, HttpServletRequest request, HttpServletResponse response) {
+        restTemplate.execute(url, HttpMethod.GET,
+                req -> {
+                    HttpHeaders headers = req.getHeaders();
+                    headers.set(HttpHeaders.ACCEPT_ENCODING, gzip ? "gzip" : "identity");
+                    copyHeader(request.getHeader(HttpHeaders.IF_NONE_MATCH), HttpHeaders.IF_NONE_MATCH, headers);
+                    copyHeader(request.getHeader(HttpHeaders.IF_MODIFIED_SINCE), HttpHeaders.IF_MODIFIED_SINCE, headers);
+                },
+                res -> {
+                    HttpHeaders headers = res.getHeaders();
+                    applyHeaders(response, headers.getFirst(HttpHeaders.CONTENT_TYPE), headers.getFirst(HttpHeaders.CONTENT_ENCODING),
+                            headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED));
+                    if (res.getStatusCode().value() == HttpServletResponse.SC_NOT_MODIFIED) {
+                        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                        return null;
+                    }
+                    if (headers.getContentLength() >= 0) response.setContentLengthLong(headers.getContentLength());
+
+                    byte[] buffer = new byte[bufferSize];
+                    InputStream in = res.getBody();
+                    OutputStream out = response.getOutputStream();
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                    }
+                    out.flush();
+                    return null;
+                });
+    }
+
+    /**
+     * Modo reactive: a requisição vira assíncrona (AsyncContext) e a thread volta na hora. Os
+     * cabeçalhos e o corpo chegam por callbacks do HttpClient e são escritos com o WriteListener
+     * do servlet (ServletBodySubscriber). Falhas antes dos cabeçalhos viram o mesmo JSON de erro
+     * do controller (503 para circuito aberto / bulkhead cheio). Não há prazo total: os cabeçalhos
+     * têm read-timeout (timeout da requisição) e o corpo pode demorar o quanto precisar, desde que
+     * nunca fique read-timeout sem andar; um download grande para um cliente lento não é cortado.
+     */
+    private void relay(String url, boolean gzip, HttpServletRequest request, HttpServletResponse response) {
+        java.net.http.HttpRequest.Builder upstream = java.net.http.HttpRequest.newBuilder(URI.create(url))
+                .timeout(pool.settings().readTimeout())
+                .header(HttpHeaders.ACCEPT_ENCODING, gzip ? "gzip" : "identity");
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) upstream.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        String ifModifiedSince = request.getHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        if (ifModifiedSince != null) upstream.header(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSince);
+
+        Duration idleTimeout = pool.settings().readTimeout();
+        AsyncContext async = request.startAsync();
+        // Sem timeout do container: ele contaria o tempo total da resposta, não o tempo parado
+        async.setTimeout(0);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<ServletBodySubscriber> streaming = new AtomicReference<>();
+
+        CompletableFuture<HttpResponse<Void>> exchange = pool.sendAsync(upstream.GET().build(), info -> {
+            int status = info.statusCode();
+            if (status >= 400) return HttpResponse.BodySubscribers.discarding();
+            java.net.http.HttpHeaders headers = info.headers();
+            applyHeaders(response, headers.firstValue(HttpHeaders.CONTENT_TYPE).orElse(null),
+                    headers.firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null),
+                    headers.firstValue(HttpHeaders.ETAG).orElse(null),
+                    headers.firstValue(HttpHeaders.LAST_MODIFIED).orElse(null));
+            if (status == HttpServletResponse.SC_NOT_MODIFIED) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return HttpResponse.BodySubscribers.discarding();
+            }
+            headers.firstValueAsLong(HttpHeaders.CONTENT_LENGTH).ifPresent(response::setContentLengthLong);
+            try {
+                ServletBodySubscriber subscriber = new ServletBodySubscriber(response.getOutputStream(), idleTimeout);
+                streaming.set(subscriber);
+                return subscriber;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        async.addListener(new AsyncListener() {
+            // Só se o container impuser um timeout próprio: cancela e devolve a falha como no prazo de ociosidade
+            @Override public void onTimeout(AsyncEvent event) {
+                CancellationException timeout = new CancellationException("Timeout assíncrono do container no /proxy");
+                exchange.cancel(true);
+                ServletBodySubscriber subscriber = streaming.get();
+                if (subscriber != null) subscriber.onError(timeout);
+                if (done.compareAndSet(false, true)) abort(async, timeout);
+            }
+            @Override public void onError(AsyncEvent event) {
+                exchange.cancel(true);
+            }
+            @Override public void onComplete(AsyncEvent event) {}
+            @Override public void onStartAsync(AsyncEvent event) {}
+        });
+
+        exchange.whenComplete((result, error) -> {
+            if (!done.compareAndSet(false, true)) return;
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause != null && streaming.get() != null) {
+                abort(async, cause);
+                return;
+            }
+            try {
+                if (!response.isCommitted()) {
+                    if (cause != null) {
+                        writeError(response, cause instanceof UpstreamUnavailableException
+                                ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.INTERNAL_SERVER_ERROR,
+                                cause.getMessage() != null ? cause.getMessage() : cause.toString());
+                    } else if (result.statusCode() >= 400) {
+                        writeError(response, HttpStatus.INTERNAL_SERVER_ERROR, "Upstream respondeu " + result.statusCode());
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Erro ao responder /proxy: " + e.getMessage());
+            } finally {
+                async.complete();
+            }
+        });
+    }
+
+    /**
+     * Stream já iniciado (Content-Length enviado): completar normalmente deixaria o cliente esperando
+     * bytes que não vêm. A falha volta para uma thread do container (dispatch ASYNC), onde serve()
+     * a relança e o container derruba a conexão, como acontece no modo stream.
+     */
+    private static void abort(AsyncContext async, Throwable cause) {
+        async.getRequest().setAttribute(RELAY_ERROR, cause);
+        async.dispatch();
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.reset();
+        response.setStatus(status.value());
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\": \"" + message.replace("\"", "'") + "\"}");
+    }
+
+    /**
+     * Ponte entre o Flow.Subscriber do HttpClient e o WriteListener do servlet. O próximo pedaço do
+     * upstream só é pedido (request(1)) quando o anterior foi escrito e a saída voltou a aceitar
+     * dados (isReady); um cliente lento segura a leitura do upstream em vez de acumular memória.
+     * onError atende as duas interfaces: falha de um lado cancela o outro. Cada pedaço recebido ou
+     * escrito renova o prazo de ociosidade; só um upstream ou cliente parado por idleTimeout corta o corpo.
+     */
+    private static final class ServletBodySubscriber implements HttpResponse.BodySubscriber<Void>, WriteListener {
+        private final ServletOutputStream out;
+        private final long idleNanos;
+        private volatile long lastProgress = System.nanoTime();
+        private final CompletableFuture<Void> body = new CompletableFuture<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+        private Flow.Subscription subscription;
+        private boolean demanded;
+        private boolean upstreamDone;
+
+        ServletBodySubscriber(ServletOutputStream out, Duration idleTimeout) {
+            this.out = out;
+            this.idleNanos = idleTimeout.toNanos();
+        }
+
+        @Override
+        public CompletionStage<Void> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            lock.lock();
+            try {
+                this.subscription = subscription;
+            } finally {
+                lock.unlock();
+            }
+            // O container chama onWritePossible assim que a saída estiver pronta: é ele que dispara o primeiro request(1)
+            out.setWriteListener(this);
+            watchIdle();
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            lock.lock();
+            try {
+                demanded = false;
+                lastProgress = System.nanoTime();
+                pending.addAll(items);
+                drain();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            lock.lock();
+            try {
+                upstreamDone = true;
+                drain();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void onWritePossible() {
+            lock.lock();
+            try {
+                drain();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            Flow.Subscription current;
+            lock.lock();
+            try {
+                current = subscription;
+                pending.clear();
+            } finally {
+                lock.unlock();
+            }
+            if (current != null) current.cancel();
+            body.completeExceptionally(error);
+        }
+
+        // Reagenda a si mesmo para quando o prazo venceria; nenhuma thread fica parada esperando
+        private void watchIdle() {
+            if (body.isDone()) return;
+            long remaining = idleNanos - (System.nanoTime() - lastProgress);
+            if (remaining <= 0) {
+                onError(new SocketTimeoutException("/proxy sem progresso há " + TimeUnit.NANOSECONDS.toMillis(idleNanos) + "ms"));
+                return;
+            }
+            CompletableFuture.delayedExecutor(remaining, TimeUnit.NANOSECONDS).execute(this::watchIdle);
+        }
+
+        // Chamado com o lock: escreve enquanto a saída aceita, depois pede mais ou encerra
+        private void drain() {
+            if (body.isDone() || subscription == null) return;
+            try {
+                while (out.isReady()) {
+                    ByteBuffer next = pending.poll();
+                    if (next == null) {
+                        if (upstreamDone) {
+                            body.complete(null);
+                        } else if (!demanded) {
+                            demanded = true;
+                            subscription.request(1);
+                        }
+                        return;
+                    }
+                    out.write(next);
+                    lastProgress = System.nanoTime();
+                }
+            } catch (IOException e) {
+                onError(e);
+            }
+        }
+    }
+
+    private static void applyHeaders(HttpServletResponse response, String contentType, String contentEncoding, String etag, String lastModified) {
+        response.setContentType(contentType != null ? contentType : "application/json");
+        if (contentEncoding != null) response.setHeader(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+        if (etag != null) response.setHeader(HttpHeaders.ETAG, etag);
+        if (lastModified != null) response.setHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static boolean notModified(HttpServletRequest request, String etag, String lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            if (etag == null) return false;
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) return true;
+            }
+            return false;
+        }
+        String ifModifiedSince = request.getHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        if (ifModifiedSince != null && lastModified != null) {
+            try {
+                ZonedDateTime since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME);
+                ZonedDateTime modified = ZonedDateTime.parse(lastModified, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return !modified.isAfter(since);
+            } catch (DateTimeParseException ignored) {}
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private static void copyHeader(String value, String name, HttpHeaders target) {
+        if (value != null) target.set(name, value);
+    }
+}
+
+// ================= RESPOSTAS PRÉ-SERIALIZADAS (Bytes + ETag) =================
+
+/**
+ * Corpo de resposta serializado uma vez por versão dos dados: bytes prontos, variante gzip
+ * e ETag forte (md5 do conteúdo). Os grupos ("channels", "sports", "config") têm um contador
+ * de versão incrementado quando os dados mudam; entradas de versão antiga são refeitas na
+ * próxima leitura. A requisição vira uma escrita direta de bytes ou um 304.
+ */
+@Component
+class ResponseBodyCache {
+    private static final int MAX_ENTRIES = 1024;
+
+    private final ObjectMapper mapper;
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    // LRU como no ProxyCache: chaves vêm de parâmetros do cliente (cursor, fields, time), então
+    // chaves novas empurram as menos usadas em vez de ficarem de fora do cache
+    private final LinkedHashMap<String, Body> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Body> eldest) {
+            if (size() <= MAX_ENTRIES) return false;
+            evictions.incrementAndGet();
+            return true;
+        }
+    };
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    public ResponseBodyCache(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @EventListener
+    public void onCatalogChanged(ChannelCatalogChanged changed) {
+        bump("channels");
+    }
+
+    @EventListener({ SportEventsChanged.class, SportEventsArchived.class })
+    public void onEventsChanged() {
+        bump("sports");
+    }
+
+    public void bump(String group) {
+        versions.computeIfAbsent(group, g -> new AtomicLong()).incrementAndGet();
+    }
+
+    /** Serializa o valor com o ObjectMapper da aplicação (mesmo JSON do caminho normal). */
+    public ResponseEntity<byte[]> json(String group, String key, Supplier<?> value, String ifNoneMatch, String acceptEncoding) {
+        return respond(group, key, () -> mapper.writeValueAsBytes(value.get()), ifNoneMatch, acceptEncoding);
+    }
+
+    /** Conteúdo que já é JSON em texto (ex.: config estática). */
+    public ResponseEntity<byte[]> raw(String group, String key, Supplier<byte[]> content, String ifNoneMatch, String acceptEncoding) {
+        return respond(group, key, content, ifNoneMatch, acceptEncoding);
+    }
+
+    private ResponseEntity<byte[]> respond(String group, String key, Supplier<byte[]> content, String ifNoneMatch, String acceptEncoding) {
+        long version = versions.computeIfAbsent(group, g -> new AtomicLong()).get();
+        String cacheKey = group + ":" + key;
+        Body body = cached(cacheKey);
+        if (body != null && body.version == version) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            // A versão é lida antes de montar o corpo: se os dados mudarem no meio, a entrada já nasce velha
+            body = Body.of(version, content.get());
+            store(cacheKey, body);
+        }
+
+        boolean gzip = body.gzip != null && acceptsGzip(acceptEncoding);
+        String etag = gzip ? body.gzipEtag : body.etag;
+        if (matches(ifNoneMatch, body)) {
+            notModified.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return builder.body(gzip ? body.gzip : body.identity);
+    }
+
+    private Body cached(String cacheKey) {
+        lock.lock();
+        try {
+            return entries.get(cacheKey);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(String cacheKey, Body body) {
+        lock.lock();
+        try {
+            entries.put(cacheKey, body);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            stats.put("entries", entries.size());
+            stats.put("bytes", entries.values().stream().mapToLong(b -> b.identity.length + (b.gzip != null ? b.gzip.length : 0)).sum());
+        } finally {
+            lock.unlock();
+        }
+        stats.put("evictions", evictions.get());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("not_modified", notModified.get());
+        Map<String, Long> groups = new TreeMap<>();
+        versions.forEach((g, v) -> groups.put(g, v.get()));
+        stats.put("versions", groups);
+        return stats;
+    }
+
+    // As duas variantes compartilham o conteúdo, então qualquer uma das ETags vale para o 304
+    private static boolean matches(String ifNoneMatch, Body body) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(body.etag) || tag.equals(body.gzipEtag)) return true;
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private record Body(long version, byte[] identity, byte[] gzip, String etag, String gzipEtag) {
+        static Body of(long version, byte[] identity) {
+            String hash = DigestUtils.md5DigestAsHex(identity);
+            byte[] gzip = compress(identity);
+            // Corpos pequenos não compensam o gzip
+            if (gzip.length >= identity.length) gzip = null;
+            return new Body(version, identity, gzip, "\"" + hash + "\"", "\"" + hash + "-gz\"");
+        }
+
+        private static byte[] compress(byte[] data) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+            try (GZIPOutputStream gz = new GZIPOutputStream(out) {
+                { def.setLevel(Deflater.BEST_COMPRESSION); }
+            }) {
+                gz.write(data);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
+
+// ================= MÉTRICAS (Prometheus) =================
+
+/**
+ * Registro de métricas em memória, exposto em GET /metrics no formato texto do Prometheus
+ * (0.0.4). Cada série é nome + rótulos; contadores e histogramas usam LongAdder/DoubleAdder,
+ * sem lock no caminho quente. Rótulos com cardinalidade aberta (host do /proxy, rota
+ * desconhecida) são limitados a MAX_SERIES séries por métrica; o excedente cai na série "other".
+ */
+@Component
+class Metrics {
+    static final double[] LATENCY_BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    static final double[] COUNT_BUCKETS = {0, 1, 2, 3, 5, 10, 20, 50, 100};
+    private static final int MAX_SERIES = 200;
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+    // Histograma de duração em segundos (nome terminando em _seconds)
+    public Histogram timer(String name, String help, String... labels) {
+        return histogram(name, help, LATENCY_BUCKETS, labels);
+    }
+
+    public Histogram histogram(String name, String help, double[] buckets, String... labels) {
+        return (Histogram) family(name, help, "histogram").series(labels, () -> new Histogram(buckets));
+    }
+
+    public LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) family(name, help, "counter").series(labels, LongAdder::new);
+    }
+
+    // Valor lido na hora da coleta (contadores que já existem em outros componentes, tamanhos de cache)
+    public void gauge(String name, String help, Supplier<Number> value, String... labels) {
+        family(name, help, "gauge").series(labels, () -> value);
+    }
+
+    public void functionCounter(String name, String help, Supplier<Number> value, String... labels) {
+        family(name, help, "counter").series(labels, () -> value);
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(8192);
+        new TreeMap<>(families).values().forEach(family -> family.write(out));
+        return out.toString();
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = families.computeIfAbsent(name, n -> new Family(n, help, type));
+        if (!family.type.equals(type)) throw new IllegalArgumentException("Métrica " + name + " já registrada como " + family.type);
+        return family;
+    }
+
+    private static final class Family {
+        private final String name;
+        private final String help;
+        private final String type;
+        private final ConcurrentHashMap<String, Object> series = new ConcurrentHashMap<>();
+
+        Family(String name, String help, String type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+
+        Object series(String[] labels, Supplier<Object> factory) {
+            String key = labels(labels, false);
+            Object existing = series.get(key);
+            if (existing != null) return existing;
+            if (series.size() >= MAX_SERIES) key = labels(labels, true);
+            return series.computeIfAbsent(key, k -> factory.get());
+        }
+
+        void write(StringBuilder out) {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+            new TreeMap<>(series).forEach((labels, value) -> {
+                if (value instanceof Histogram histogram) {
+                    histogram.write(out, name, labels);
+                } else if (value instanceof LongAdder adder) {
+                    sample(out, name, labels, adder.sum());
+                } else {
+                    @SuppressWarnings("unchecked")
+                    Number number = ((Supplier<Number>) value).get();
+                    sample(out, name, labels, number != null ? number.doubleValue() : Double.NaN);
+                }
+            });
+        }
+
+        private static String labels(String[] pairs, boolean overflow) {
+            if (pairs.length % 2 != 0) throw new IllegalArgumentException("Rótulos devem vir em pares nome/valor");
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < pairs.length; i += 2) {
+                if (i > 0) text.append(',');
+                String value = overflow ? "other" : pairs[i + 1] != null ? pairs[i + 1] : "";
+                text.append(pairs[i]).append("=\"").append(escape(value)).append('"');
+            }
+            return text.toString();
+        }
+
+        private static String escape(String value) {
+            return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        }
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) out.append('{').append(labels).append('}');
+        out.append(' ').append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) return "NaN";
+        if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    // Buckets cumulativos no estilo Prometheus: _bucket{le=...}, _sum e _count
+    static final class Histogram {
+        private final double[] bounds;
+        private final LongAdder[] counts;
+        private final DoubleAdder sum = new DoubleAdder();
+
+        Histogram(double[] bounds) {
+            this.bounds = bounds;
+            this.counts = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < counts.length; i++) counts[i] = new LongAdder();
+        }
+
+        public void record(double value) {
+            int i = 0;
+            while (i < bounds.length && value > bounds[i]) i++;
+            counts[i].increment();
+            sum.add(value);
+        }
+
+        public void recordNanos(long nanos) {
+            record(nanos / 1e9);
+        }
+
+        public long count() {
+            long total = 0;
+            for (LongAdder c : counts) total += c.sum();
+            return total;
+        }
+
+        void write(StringBuilder out, String name, String labels) {
+            String prefix = labels.isEmpty() ? "" : labels + ",";
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i].sum();
+                String le = i < bounds.length ? format(bounds[i]) : "+Inf";
+                sample(out, name + "_bucket", prefix + "le=\"" + le + "\"", cumulative);
+            }
+            sample(out, name + "_sum", labels, sum.sum());
+            sample(out, name + "_count", labels, cumulative);
+        }
+    }
+}
+
+/**
+ * Conta os comandos SQL preparados pelo Hibernate (registrado como statement_inspector em
+ * LabsTV.statementCounter): um total global e, dentro de uma requisição HTTP, o total daquela
+ * requisição, para expor quantas idas ao banco cada rota faz.
+ */
+class StatementCounter implements StatementInspector {
+    private static final long serialVersionUID = 1L;
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+    private static final LongAdder TOTAL = new LongAdder();
+
+    @Override
+    public String inspect(String sql) {
+        TOTAL.increment();
+        int[] current = CURRENT.get();
+        if (current != null) current[0]++;
+        return sql;
+    }
+
+    static void begin() {
+        CURRENT.set(new int[1]);
+    }
+
+    static int end() {
+        int[] current = CURRENT.get();
+        CURRENT.remove();
+        return current != null ? current[0] : 0;
+    }
+
+    static long total() {
+        return TOTAL.sum();
+    }
+}
+
+/**
+ * Latência de toda requisição HTTP por método, rota e status. A rota é o padrão do mapeamento
+ * (/api/sports/{id}), nunca a URL crua, para não explodir a cardinalidade. Junto vai o número
+ * de comandos SQL que a requisição disparou. Em SSE/async mede até o início do stream.
+ */
+@Component
+class RequestMetricsFilter extends OncePerRequestFilter {
+    private final Metrics metrics;
+
+    public RequestMetricsFilter(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        StatementCounter.begin();
+        int status = 500;
+        try {
+            chain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            int statements = StatementCounter.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : status == 404 ? "NOT_FOUND" : "UNKNOWN";
+            metrics.timer("http_server_requests_seconds", "Latência das requisições HTTP",
+                    "method", request.getMethod(), "uri", uri, "status", Integer.toString(status))
+                    .recordNanos(System.nanoTime() - start);
+            metrics.histogram("http_server_requests_db_statements", "Comandos SQL por requisição HTTP",
+                    Metrics.COUNT_BUCKETS, "uri", uri)
+                    .record(statements);
+        }
+    }
+}
+
+/**
+ * Métricas que já existem como contadores nos componentes (caches, retenção, banco) e as do
+ * sync, alimentadas pelo evento LeagueSynced.
+ */
+@Component
+class MetricsBinder {
+    private final Metrics metrics;
+
+    public MetricsBinder(Metrics metrics, ProxyCache proxyCache, ResponseBodyCache bodyCache, EventRetention retention) {
+        this.metrics = metrics;
+
+        metrics.functionCounter("tvlabs_db_statements_total", "Comandos SQL preparados pelo Hibernate", StatementCounter::total);
+
+        for (String result : List.of("hits", "misses", "coalesced", "stale_served")) {
+            metrics.functionCounter("tvlabs_proxy_cache_requests_total", "Consultas ao cache do /proxy por resultado",
+                    () -> (Number) proxyCache.stats().get(result), "result", result);
+        }
+        metrics.gauge("tvlabs_proxy_cache_bytes", "Bytes ocupados pelo cache do /proxy",
+                () -> (Number) proxyCache.stats().get("bytes"));
+
+        for (String result : List.of("hits", "misses", "not_modified")) {
+            metrics.functionCounter("tvlabs_response_cache_requests_total", "Respostas pré-serializadas por resultado",
+                    () -> (Number) bodyCache.stats().get(result), "result", result);
+        }
+
+        metrics.functionCounter("tvlabs_retention_archived_total", "Eventos encerrados movidos para o histórico",
+                () -> (Number) retention.stats().get("archived"));
+
+        // Threads de plataforma vivas (virtual threads não entram na conta) e heap em uso
+        metrics.gauge("jvm_threads_live_threads", "Threads de plataforma vivas",
+                () -> ManagementFactory.getThreadMXBean().getThreadCount());
+        metrics.gauge("jvm_memory_used_bytes", "Heap em uso",
+                () -> ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(), "area", "heap");
+    }
+
+    @EventListener
+    public void onLeagueSynced(LeagueSynced synced) {
+        String league = synced.league().id();
+        LeagueSyncResult result = synced.result();
+        metrics.timer("tvlabs_sync_duration_seconds", "Duração do sync de uma liga", "league", league)
+                .record(result.durationMs() / 1000.0);
+        if (result.error() != null) {
+            metrics.counter("tvlabs_sync_failures_total", "Syncs de liga que falharam", "league", league).increment();
+            return;
+        }
+        String help = "Eventos processados pelo sync por resultado";
+        metrics.counter("tvlabs_sync_events_total", help, "league", league, "result", "inserted").add(result.inserted());
+        metrics.counter("tvlabs_sync_events_total", help, "league", league, "result", "updated").add(result.updated());
+        metrics.counter("tvlabs_sync_events_total", help, "league", league, "result", "unchanged")
+                .add(Math.max(0, result.events() - result.inserted() - result.updated()));
+    }
+}
+
+// ================= CONTROLLER (Endpoints REST) =================
+
+@RestController
+@SuppressWarnings("unused")
+class ApiController {
+
+    private final ChannelCatalog channelCatalog;
+    private final SportEventRepository eventRepo;
+    private final ScoreService scoreService;
+    private final ProxyService proxyService;
+    private final LiveScoreHub liveScoreHub;
+    private final SearchIndex searchIndex;
+    private final SuggestIndex suggestIndex;
+    private final ResponseBodyCache bodyCache;
+    private final LeaderboardService leaderboardService;
+    private final LeagueRegistry leagueRegistry;
+    private final LiveScoreStore liveScoreStore;
+    private final SportEventPager sportEventPager;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public ApiController(ChannelCatalog channelCatalog, SportEventRepository eventRepo, ScoreService scoreService,
+            ProxyService proxyService, LiveScoreHub liveScoreHub, SearchIndex searchIndex, SuggestIndex suggestIndex,
+            ResponseBodyCache bodyCache, LeaderboardService leaderboardService, LeagueRegistry leagueRegistry,
+            LiveScoreStore liveScoreStore, SportEventPager sportEventPager,
+            @Value("${tvlabs.api.page.default-limit:50}") int defaultPageSize,
+            @Value("${tvlabs.api.page.max-limit:200}") int maxPageSize) {
+        this.channelCatalog = channelCatalog;
+        this.eventRepo = eventRepo;
+        this.scoreService = scoreService;
+        this.proxyService = proxyService;
+        this.liveScoreHub = liveScoreHub;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.bodyCache = bodyCache;
+        this.leaderboardService = leaderboardService;
+        this.leagueRegistry = leagueRegistry;
+        this.liveScoreStore = liveScoreStore;
+        this.sportEventPager = sportEventPager;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // Redireciona a raiz para o frontend
+    @GetMapping("/")
+    public ResponseEntity<Void> index() {
+        return ResponseEntity.status(HttpStatus.FOUND).location(URI.create("/TVLabs.html")).build();
+    }
+
+    // --- ENDPOINTS DE CANAIS ---
+
+    // Respostas de catálogo saem do ResponseBodyCache (bytes prontos + ETag/304)
+    // Paginação por cursor (ordem por id) só com ?limit= ou ?cursor=; sem eles vem a lista inteira
+    // (total = todos os canais). Projeção ?fields=; numa página, total = itens desta página
+    @GetMapping("/channels")
+    public ResponseEntity<?> getChannels(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ChannelCatalog.Snapshot catalog = channelCatalog.snapshot();
+        String key = category != null && !category.isEmpty() ? category.toLowerCase(Locale.ROOT) : "";
+        int size = pageSize(limit, cursor);
+        try {
+            KeysetPage<Channel> page = KeysetPage.ofSorted(key.isEmpty() ? catalog.all() : catalog.byCategory(key),
+                    Channel::getId, cursor, size);
+            List<?> data = FieldProjection.CHANNELS.apply(page.items(), fields);
+            return bodyCache.json("channels", "list?" + key + "&cursor=" + cursor + "&limit=" + size + "&fields=" + fields,
+                    () -> new ApiResponse<>(true, data, data.size(), page.nextCursor()), ifNoneMatch, acceptEncoding);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/channels/{id}")
+    public ResponseEntity<byte[]> getChannelById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Channel channel = channelCatalog.snapshot().byId().get(id);
+        if (channel == null) return ResponseEntity.notFound().build();
+        return bodyCache.json("channels", "id/" + id, () -> channel, ifNoneMatch, acceptEncoding);
+    }
+
+    @GetMapping("/channels/categories")
+    public ResponseEntity<byte[]> getChannelCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        List<CategoryDTO> categories = channelCatalog.snapshot().categories();
+        // Spec exige wrapper com total
+        return bodyCache.json("channels", "categories", () -> new ApiResponse<>(true, categories, categories.size()),
+                ifNoneMatch, acceptEncoding);
+    }
+
+    // --- ENDPOINTS DE ESPORTES ---
+
+    // Keyset por (start_time, id): sort=start_time (padrão) ou sort=-start_time. Sem ?limit= nem ?cursor=
+    // vem a lista inteira (total = todos os eventos); numa página, total = itens desta página
+    @GetMapping("/sports")
+    public ResponseEntity<?> getSports(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "start_time") String sort) {
+        if (!sort.equals("start_time") && !sort.equals("-start_time")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Ordenação suportada: start_time ou -start_time"));
+        }
+        try {
+            KeysetPage<SportEvent> page = sportEventPager.page(blankToNull(category), blankToNull(status),
+                    sort.startsWith("-"), cursor, pageSize(limit, cursor), FieldProjection.includes(fields, "embeds"));
+            List<?> data = FieldProjection.SPORT_EVENTS.apply(page.items(), fields);
+            return ResponseEntity.ok(new ApiResponse<>(true, data, data.size(), page.nextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/sports/{id}")
+    public ResponseEntity<?> getSportById(@PathVariable String id) {
+        return eventRepo.findWithEmbedsById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/sports/categories")
+    public ResponseEntity<byte[]> getSportCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return bodyCache.json("sports", "categories", () -> {
+            List<String> rawCategories = eventRepo.findDistinctCategories();
+            List<CategoryDTO> categories = rawCategories.stream()
+                    .map(CategoryDTO::new)
+                    .collect(Collectors.toList());
+            return new ApiResponse<>(true, categories, categories.size());
+        }, ifNoneMatch, acceptEncoding);
+    }
+
+    // --- SCORES ENDPOINT (ESPN INTEGRATION) ---
+
+    // Lido do LiveScoreStore: nunca espera a ESPN; age_ms diz quão velho é o placar
+    @GetMapping("/scores")
+    public ResponseEntity<ApiResponse<ScoresResponse>> getScores(
+            @RequestParam(required = false, defaultValue = "futebol") String category,
+            @RequestParam(required = false) String sport,
+            @RequestParam(required = false) String league) {
+        Optional<League> found = sport != null && league != null
+                ? leagueRegistry.find(sport, league)
+                : scoreService.leagueForCategory(category);
+        if (found.isEmpty()) return ResponseEntity.notFound().build();
+
+        scoreService.refreshOnDemand(found.get());
+        Optional<LeagueScores> scores = liveScoreStore.get(found.get().id());
+        if (scores.isEmpty()) {
+            // Liga ainda sem placar local: responde vazio enquanto o sync busca em segundo plano
+            ScoresResponse empty = new ScoresResponse(found.get().id(), 0, null, null, List.of());
+            return ResponseEntity.ok(new ApiResponse<>(true, empty, 0));
+        }
+        LeagueScores current = scores.get();
+        long ageMs = Duration.between(current.updatedAt(), Instant.now()).toMillis();
+        ScoresResponse body = new ScoresResponse(current.league(), current.version(), current.updatedAt(), ageMs, current.events());
+        return ResponseEntity.ok(new ApiResponse<>(true, body, current.events().size()));
+    }
+
+    // Só os jogos que mudaram depois do cursor "since" (version de /scores ou da chamada anterior)
+    @GetMapping("/scores/changes")
+    public ResponseEntity<ScoreChanges> getScoreChanges(
+            @RequestParam String league,
+            @RequestParam(defaultValue = "0") long since) {
+        Optional<League> found = leagueRegistry.find(league).or(() -> leagueRegistry.findByKeyOrSlug(league));
+        if (found.isEmpty()) return ResponseEntity.notFound().build();
+
+        scoreService.refreshOnDemand(found.get());
+        Optional<LeagueScores> scores = liveScoreStore.get(found.get().id());
+        if (scores.isEmpty()) return ResponseEntity.noContent().build();
+
+        LeagueScores current = scores.get();
+        List<ScoreLine> changed = current.changesSince(since);
+        if (changed == null) {
+            return ResponseEntity.ok(new ScoreChanges(current.league(), current.version(), true, current.events()));
+        }
+        if (changed.isEmpty()) return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(new ScoreChanges(current.league(), current.version(), false, changed));
+    }
+
+    // Stream SSE de placares: snapshot inicial + apenas os jogos que mudaram
+    @GetMapping(value = "/scores/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamScores(
+            @RequestParam String sport,
+            @RequestParam String league,
+            @RequestParam(required = false) String event) {
+        try {
+            return ResponseEntity.ok(liveScoreHub.subscribe(sport, league, event));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // --- ENDPOINT DE BUSCA UNIFICADA ---
+
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<SearchResultDTO>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "0") int offset) {
+        suggestIndex.recordSearch(q);
+        // Sem limit a busca devolve todos os resultados, como antes da paginação
+        int pageSize = limit != null ? limit : Integer.MAX_VALUE;
+        SearchPage<Channel> channels = searchIndex.searchChannels(q, pageSize, offset);
+        SearchPage<SportEvent> events = searchIndex.searchEvents(q, pageSize, offset);
+
+        SearchResultDTO result = new SearchResultDTO(channels.items(), events.items());
+        SearchMeta meta = new SearchMeta(q, channels.total(), events.total());
+
+        // Spec exige wrapper com meta
+        return ResponseEntity.ok(new ApiResponse<>(true, result, meta));
+    }
+
+    // Artilharia da liga agregada no servidor (cada jogo encerrado é somado uma vez)
+    @GetMapping("/leaders/{sport}/{league}")
+    public ResponseEntity<ApiResponse<List<ScorerEntry>>> getLeaders(
+            @PathVariable String sport,
+            @PathVariable String league,
+            @RequestParam(defaultValue = "50") int limit) {
+        Optional<League> found = leagueRegistry.find(sport, league);
+        if (found.isEmpty()) return ResponseEntity.notFound().build();
+        boolean warming = leaderboardService.refreshOnDemand(found.get());
+        List<ScorerEntry> leaders = leaderboardService.top(found.get().id(), limit);
+        ApiResponse<List<ScorerEntry>> body = new ApiResponse<>(true, leaders, leaders.size());
+        // 202: placar parcial, a temporada ainda está sendo somada (liga fora do sync pedida agora)
+        if (warming) return ResponseEntity.accepted().header(HttpHeaders.RETRY_AFTER, "5").body(body);
+        return ResponseEntity.ok(body);
+    }
+
+    // Autocomplete por prefixo (top-k por popularidade)
+    @GetMapping("/search/suggest")
+    public ResponseEntity<ApiResponse<List<Suggestion>>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+        List<Suggestion> suggestions = suggestIndex.suggest(q, limit);
+        return ResponseEntity.ok(new ApiResponse<>(true, suggestions, suggestions.size()));
+    }
+
+    // --- PROXY INTERNO (Evita CORS no Frontend) ---
+    @GetMapping("/proxy")
+    public void proxy(@RequestParam String url, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            proxyService.serve(url, request, response);
+        } catch (RestClientException | IllegalArgumentException e) {
+            if (response.isCommitted()) return; // Stream já iniciado: só resta encerrar a conexão
+            response.reset();
+            // Circuito aberto / bulkhead cheio: o upstream está indisponível, não é erro nosso
+            boolean unavailable = e.getCause() instanceof UpstreamUnavailableException;
+            response.setStatus(unavailable ? HttpStatus.SERVICE_UNAVAILABLE.value() : HttpStatus.INTERNAL_SERVER_ERROR.value());
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+    }
+
+    private int pageSize(Integer limit, String cursor) {
+        if (limit == null && cursor == null) return KeysetPage.UNPAGED;
+        if (limit == null) return defaultPageSize;
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
+
+// ================= CONFIG CONTROLLER (Frontend Data) =================
+
+@RestController
+@RequestMapping("/api/config")
+@SuppressWarnings({"unused"})
+class ConfigController {
+
+    private final ResponseBodyCache bodyCache;
+    private final LeagueRegistry leagueRegistry;
+    private final TeamDirectory teamDirectory;
+
+    public ConfigController(ResponseBodyCache bodyCache, LeagueRegistry leagueRegistry, TeamDirectory teamDirectory) {
+        this.bodyCache = bodyCache;
+        this.leagueRegistry = leagueRegistry;
+        this.teamDirectory = teamDirectory;
+    }
+
+    @GetMapping("/sports")
+    public ResponseEntity<byte[]> getSportsConfig(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return bodyCache.raw("config", "sports", () -> SportsData.JSON.getBytes(StandardCharsets.UTF_8), ifNoneMatch, acceptEncoding);
+    }
+
+    @GetMapping("/wiki")
+    public ResponseEntity<byte[]> getWikiConfig(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return bodyCache.raw("config", "wiki", () -> WikiData.JSON.getBytes(StandardCharsets.UTF_8), ifNoneMatch, acceptEncoding);
+    }
+
+    // Só a liga pedida (chave do SportsData ou slug da ESPN), já com os times dela
+    @GetMapping("/sports/{league}")
+    public ResponseEntity<byte[]> getLeagueConfig(
+            @PathVariable String league,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Optional<League> found = leagueRegistry.findByKeyOrSlug(league);
+        if (found.isEmpty()) return ResponseEntity.notFound().build();
+        League l = found.get();
+        return bodyCache.json("config", "sports/" + l.key(), () -> new LeagueConfig(l.sport(), l.category(), l.key(),
+                l.apiId(), l.slug(), l.name(), l.logo(), l.bg(), l.wikiPage(), teamDirectory.teamsOf(l.key())),
+                ifNoneMatch, acceptEncoding);
+    }
+
+    // Página da Wikipedia de um time; ?league= desempata clubes presentes em várias ligas
+    @GetMapping("/wiki/{team}")
+    public ResponseEntity<byte[]> getTeamWiki(
+            @PathVariable String team,
+            @RequestParam(required = false) String league,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Optional<Team> found = teamDirectory.find(team, league);
+        if (found.isEmpty()) return ResponseEntity.notFound().build();
+        Team t = found.get();
+        return bodyCache.json("config", "wiki/" + t.league() + "/" + t.name(), () -> t, ifNoneMatch, acceptEncoding);
+    }
+}
+
+// ================= STATUS CONTROLLER (Diagnóstico) =================
+
+@RestController
+@RequestMapping("/api/status")
+@SuppressWarnings({"unused"})
+class StatusController {
+
+    private final ProxyCache proxyCache;
+
+    private final OutboundHttp outboundHttp;
+
+    private final ScoreService scoreService;
+    private final AdaptiveSyncScheduler syncScheduler;
+    private final ResponseBodyCache bodyCache;
+    private final EspnScoreboardParser espnParser;
+    private final EventRetention retention;
+
+    public StatusController(ProxyCache proxyCache, OutboundHttp outboundHttp, ScoreService scoreService,
+            AdaptiveSyncScheduler syncScheduler, ResponseBodyCache bodyCache, EspnScoreboardParser espnParser,
+            EventRetention retention) {
+        this.proxyCache = proxyCache;
+        this.outboundHttp = outboundHttp;
+        this.scoreService = scoreService;
+        this.syncScheduler = syncScheduler;
+        this.bodyCache = bodyCache;
+        this.espnParser = espnParser;
+        this.retention = retention;
+    }
+
+    @GetMapping("/sync")
+    public ResponseEntity<Map<String, LeagueSyncResult>> getSyncStatus() {
+        return ResponseEntity.ok(scoreService.getLastSync());
+    }
+
+    @GetMapping("/schedule")
+    public ResponseEntity<Map<String, AdaptiveSyncScheduler.LeagueSchedule>> getSchedule() {
+        return ResponseEntity.ok(syncScheduler.getSchedules());
+    }
+
+    @GetMapping("/http")
+    public ResponseEntity<Map<String, Object>> getHttpPoolStats() {
+        return ResponseEntity.ok(outboundHttp.stats());
+    }
+
+    @GetMapping("/proxy-cache")
+    public ResponseEntity<Map<String, Object>> getProxyCacheStats() {
+        return ResponseEntity.ok(proxyCache.stats());
+    }
+
+    @GetMapping("/response-cache")
+    public ResponseEntity<Map<String, Object>> getResponseCacheStats() {
+        return ResponseEntity.ok(bodyCache.stats());
+    }
+
+    @GetMapping("/parser")
+    public ResponseEntity<Map<String, Object>> getParserStats() {
+        return ResponseEntity.ok(espnParser.stats());
+    }
+
+    @GetMapping("/retention")
+    public ResponseEntity<Map<String, Object>> getRetentionStats() {
+        return ResponseEntity.ok(retention.stats());
+    }
+}
+
+// Coleta do Prometheus (ver Metrics)
+@RestController
+@SuppressWarnings({"unused"})
+class MetricsController {
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+
+    private final Metrics metrics;
+
+    public MetricsController(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<String> scrape() {
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(metrics.scrape());
     }
 }
 
@@ -0,0 +1,58 @@
+package com.w3labs.tvlabs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTests {
+
+	@Test
+	void opensAfterConsecutiveFailures() {
+		OutboundPool.CircuitBreaker breaker = new OutboundPool.CircuitBreaker(3, Duration.ofMinutes(1));
+		breaker.onFailure();
+		breaker.onFailure();
+		breaker.onSuccess();
+		breaker.onFailure();
+		breaker.onFailure();
+		assertEquals("CLOSED", breaker.state());
+		assertTrue(breaker.allow());
+
+		breaker.onFailure();
+		assertEquals("OPEN", breaker.state());
+		assertFalse(breaker.allow());
+	}
+
+	@Test
+	void halfOpenLetsASingleProbeThrough() {
+		OutboundPool.CircuitBreaker breaker = new OutboundPool.CircuitBreaker(1, Duration.ZERO);
+		breaker.onFailure();
+
+		assertTrue(breaker.allow());
+		assertEquals("HALF_OPEN", breaker.state());
+		assertFalse(breaker.allow());
+
+		// Tentativa cancelada devolve a vaga de teste sem reabrir o circuito
+		breaker.release();
+		assertEquals("HALF_OPEN", breaker.state());
+		assertTrue(breaker.allow());
+
+		breaker.onSuccess();
+		assertEquals("CLOSED", breaker.state());
+	}
+
+	@Test
+	void failedProbeReopens() {
+		OutboundPool.CircuitBreaker breaker = new OutboundPool.CircuitBreaker(5, Duration.ZERO);
+		for (int i = 0; i < 5; i++) breaker.onFailure();
+		assertTrue(breaker.allow());
+
+		// Em HALF_OPEN uma falha basta, sem esperar o limite de falhas seguidas
+		breaker.onFailure();
+		assertEquals("OPEN", breaker.state());
+	}
+
+}
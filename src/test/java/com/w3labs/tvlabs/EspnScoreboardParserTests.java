@@ -0,0 +1,106 @@
+package com.w3labs.tvlabs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class EspnScoreboardParserTests {
+
+	// Meta de alocação do parser (ver EspnScoreboardParser); a de vazão fica no SyncMappingBenchmark
+	private static final long MAX_ALLOCATED_BYTES_PER_GAME = 4 * 1024;
+
+	private final EspnScoreboardParser parser = new EspnScoreboardParser(JsonMapper.builder().build());
+
+	@Test
+	void extractsOnlyTheFieldsWeUse() throws IOException {
+		List<EspnGame> games = parser.parse(fixture());
+
+		assertEquals(10, games.size());
+		EspnGame first = games.get(0);
+		assertEquals("700100", first.id());
+		assertEquals("Palmeiras at Flamengo", first.name());
+		assertEquals("2025-08-10T19:00Z", first.date());
+		assertEquals("post", first.state());
+		assertTrue(first.completed());
+		assertEquals("FT", first.detail());
+		assertEquals(2, first.period());
+		assertEquals("FLA", first.home().label());
+		assertEquals("PAL", first.away().label());
+		assertEquals("https://a.espncdn.com/i/teamlogos/soccer/500/800.png", first.home().logo());
+	}
+
+	@Test
+	void toleratesSchemaDrift() throws IOException {
+		String json = """
+				{
+				  "newTopLevel": {"nested": [1, 2, {"x": null}]},
+				  "events": [
+				    {"id": 42, "status": {"period": "2", "displayClock": 12.5, "type": {"state": "in", "completed": "false", "extra": []}},
+				     "competitions": [{
+				       "date": "2025-08-10T19:00Z",
+				       "competitors": [
+				         {"score": {"value": 3, "displayValue": "3"}, "team": {"displayName": "Casa", "logos": [{"href": "https://logo"}]}},
+				         {"score": 1, "team": "time sem objeto"}
+				       ]}]},
+				    {"name": "evento sem id"},
+				    "lixo",
+				    {"id": "43", "competitions": {}, "status": []}
+				  ]
+				}
+				""";
+		List<EspnGame> games = parser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(2, games.size());
+		EspnGame drifted = games.get(0);
+		assertEquals("42", drifted.id());
+		assertEquals("2025-08-10T19:00Z", drifted.date());
+		assertEquals(2, drifted.period());
+		assertEquals("12.5", drifted.clock());
+		assertFalse(drifted.completed());
+		assertEquals("3", drifted.home().score());
+		assertEquals("Casa", drifted.home().label());
+		assertEquals("https://logo", drifted.home().logo());
+		assertEquals("1", drifted.away().score());
+		assertNull(drifted.away().name());
+
+		EspnGame bare = games.get(1);
+		assertEquals("43", bare.id());
+		assertNull(bare.home());
+		assertNull(bare.state());
+	}
+
+	@Test
+	void staysWithinAllocationTarget() throws IOException {
+		byte[] payload = fixture().readAllBytes();
+		int gamesPerPayload = parser.parse(new ByteArrayInputStream(payload)).size();
+
+		// Aquecimento do JIT antes de medir
+		for (int i = 0; i < 2_000; i++) parser.parse(new ByteArrayInputStream(payload));
+
+		int rounds = 2_000;
+		long allocatedBefore = EspnScoreboardParser.allocatedBytes();
+		for (int i = 0; i < rounds; i++) parser.parse(new ByteArrayInputStream(payload));
+		long allocatedAfter = EspnScoreboardParser.allocatedBytes();
+
+		if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+			long perGame = (allocatedAfter - allocatedBefore) / ((long) rounds * gamesPerPayload);
+			assertTrue(perGame <= MAX_ALLOCATED_BYTES_PER_GAME, "alocação acima da meta: " + perGame + " bytes/jogo");
+		}
+	}
+
+	private static InputStream fixture() {
+		return EspnScoreboardParserTests.class.getResourceAsStream("/espn/scoreboard.json");
+	}
+
+}
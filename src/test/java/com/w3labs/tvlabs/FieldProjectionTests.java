@@ -0,0 +1,58 @@
+package com.w3labs.tvlabs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class FieldProjectionTests {
+
+	private final List<Channel> channels = List.of(
+			new Channel("sportv", "SporTV", "Esportes 24h", "Esportes", "https://logo", "https://embed", true));
+
+	@Test
+	void withoutFieldsItemsPassThrough() {
+		assertSame(channels, FieldProjection.CHANNELS.apply(channels, null));
+		assertSame(channels, FieldProjection.CHANNELS.apply(channels, "  "));
+	}
+
+	@Test
+	void keepsOnlyRequestedFieldsInRequestOrder() {
+		List<?> projected = FieldProjection.CHANNELS.apply(channels, "name, ID,name,,logo_url");
+
+		assertEquals(List.of(Map.of("name", "SporTV", "id", "sportv", "logo_url", "https://logo")), projected);
+		assertEquals(List.of("name", "id", "logo_url"), List.copyOf(((Map<?, ?>) projected.get(0)).keySet()));
+	}
+
+	@Test
+	void formatsEventTimesLikeTheEntity() {
+		SportEvent event = new SportEvent("1", "Final", null, "Futebol", null, LocalDateTime.of(2025, 8, 10, 19, 0), null, "upcoming");
+
+		List<?> projected = FieldProjection.SPORT_EVENTS.apply(List.of(event), "start_time,end_time");
+		Map<?, ?> row = (Map<?, ?>) projected.get(0);
+		assertEquals("2025-08-10 19:00:00", row.get("start_time"));
+		assertTrue(row.containsKey("end_time"));
+		assertNull(row.get("end_time"));
+	}
+
+	@Test
+	void unknownFieldIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> FieldProjection.CHANNELS.apply(channels, "name,password"));
+	}
+
+	@Test
+	void includesDecidesWhetherEmbedsAreLoaded() {
+		assertTrue(FieldProjection.includes(null, "embeds"));
+		assertTrue(FieldProjection.includes("id, Embeds", "embeds"));
+		assertFalse(FieldProjection.includes("id,title", "embeds"));
+	}
+
+}
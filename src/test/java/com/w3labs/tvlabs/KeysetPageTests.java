@@ -0,0 +1,79 @@
+package com.w3labs.tvlabs;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+class KeysetPageTests {
+
+	private static final List<String> IDS = List.of("a", "b", "c", "d", "e");
+
+	@Test
+	void cursorRoundTripsAndStaysUrlSafe() {
+		String cursor = KeysetPage.encode("2025-08-10T19:00", "espn-700100");
+
+		assertArrayEquals(new String[] { "2025-08-10T19:00", "espn-700100" }, KeysetPage.decode(cursor, 2));
+		assertEquals(cursor, cursor.replaceAll("[^A-Za-z0-9_-]", ""));
+		assertArrayEquals(new String[] { "" }, KeysetPage.decode(KeysetPage.encode(""), 1));
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		assertThrows(IllegalArgumentException.class, () -> KeysetPage.decode("não é base64!", 1));
+		assertThrows(IllegalArgumentException.class, () -> KeysetPage.decode(KeysetPage.encode("a", "b"), 1));
+		assertThrows(IllegalArgumentException.class, () -> KeysetPage.decode(KeysetPage.encode("a"), 2));
+	}
+
+	@Test
+	void walksASortedListPageByPage() {
+		List<String> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			KeysetPage<String> page = KeysetPage.ofSorted(IDS, Function.identity(), cursor, 2);
+			seen.addAll(page.items());
+			cursor = page.nextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(IDS, seen);
+		assertEquals(3, pages);
+	}
+
+	@Test
+	void exactLastPageHasNoCursor() {
+		KeysetPage<String> first = KeysetPage.ofSorted(IDS, Function.identity(), null, 3);
+		KeysetPage<String> last = KeysetPage.ofSorted(IDS, Function.identity(), first.nextCursor(), 2);
+
+		assertEquals(List.of("d", "e"), last.items());
+		assertNull(last.nextCursor());
+	}
+
+	@Test
+	void cursorSurvivesRemovalOfTheLastDeliveredItem() {
+		String cursor = KeysetPage.ofSorted(IDS, Function.identity(), null, 2).nextCursor();
+
+		KeysetPage<String> next = KeysetPage.ofSorted(List.of("a", "c", "d", "e"), Function.identity(), cursor, 2);
+		assertEquals(List.of("c", "d"), next.items());
+	}
+
+	@Test
+	void unpagedReturnsEverythingWithoutOverflowing() {
+		KeysetPage<String> all = KeysetPage.ofSorted(IDS, Function.identity(), null, KeysetPage.UNPAGED);
+		assertEquals(IDS, all.items());
+		assertNull(all.nextCursor());
+
+		String cursor = KeysetPage.encode("b");
+		KeysetPage<String> rest = KeysetPage.ofSorted(IDS, Function.identity(), cursor, KeysetPage.UNPAGED);
+		assertEquals(List.of("c", "d", "e"), rest.items());
+		assertNull(rest.nextCursor());
+	}
+
+}
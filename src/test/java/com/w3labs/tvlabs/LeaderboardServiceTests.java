@@ -0,0 +1,116 @@
+package com.w3labs.tvlabs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class LeaderboardServiceTests {
+
+	private static final String LEAGUE = "soccer/bra.1";
+
+	private final PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+	private final LeaderboardService service = new LeaderboardService(null, null, mock(ScorerTotalRepository.class),
+			mock(IngestedGameRepository.class), txManager, false, 2, Duration.ofMinutes(10));
+
+	@Test
+	void failedCommitLeavesTheBoardUntouched() {
+		when(txManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		doThrow(new TransactionSystemException("commit falhou")).doNothing().when(txManager).commit(any());
+		List<LeaderboardService.Goal> goals = List.of(new LeaderboardService.Goal(7, "Artilheiro", null, "Time", 2));
+
+		assertThrows(TransactionSystemException.class, () -> service.record(LEAGUE, "jogo-1", goals));
+		assertEquals(List.of(), service.top(LEAGUE, 10));
+
+		// Reenvio do mesmo jogo depois da falha: os gols contam uma vez só
+		service.record(LEAGUE, "jogo-1", goals);
+		assertEquals(List.of(new ScorerEntry(7, "Artilheiro", null, "Time", 2)), service.top(LEAGUE, 10));
+	}
+
+	@Test
+	void unsyncedLeagueIsLoadedOnDemandOncePerInterval() throws Exception {
+		League premier = new League("soccer", "premier", "eng.1", "Premier League", "Futebol", null, null, null, null);
+		ScoreService scores = mock(ScoreService.class);
+		LeagueRegistry registry = mock(LeagueRegistry.class);
+		when(registry.syncLeagues()).thenReturn(List.of());
+		CountDownLatch release = new CountDownLatch(1);
+		when(scores.fetchSeasonScoreboard(eq(premier), anyInt())).thenAnswer(call -> {
+			release.await(5, TimeUnit.SECONDS);
+			return List.of();
+		});
+		LeaderboardService onDemand = new LeaderboardService(scores, registry, mock(ScorerTotalRepository.class),
+				mock(IngestedGameRepository.class), txManager, true, 2, Duration.ofMinutes(10));
+
+		assertTrue(onDemand.refreshOnDemand(premier));
+		assertTrue(onDemand.refreshOnDemand(premier));
+		release.countDown();
+		while (onDemand.refreshOnDemand(premier)) Thread.onSpinWait();
+
+		verify(scores, times(1)).fetchSeasonScoreboard(eq(premier), anyInt());
+		onDemand.shutdown();
+	}
+
+	@Test
+	void syncedLeaguesAreNotLoadedOnDemand() {
+		League brasileirao = new League("soccer", "brasileirao", "bra.1", "Brasileirão", "Futebol", null, null, null, null);
+		ScoreService scores = mock(ScoreService.class);
+		LeagueRegistry registry = mock(LeagueRegistry.class);
+		when(registry.syncLeagues()).thenReturn(List.of(brasileirao));
+		LeaderboardService onDemand = new LeaderboardService(scores, registry, mock(ScorerTotalRepository.class),
+				mock(IngestedGameRepository.class), txManager, true, 2, Duration.ofMinutes(10));
+
+		assertFalse(onDemand.refreshOnDemand(brasileirao));
+		verify(scores, times(0)).fetchSeasonScoreboard(eq(brasileirao), anyInt());
+	}
+
+	@Test
+	void boardKeepsEveryAthleteAcrossRehashes() {
+		LeaderboardService.Board board = new LeaderboardService.Board(LEAGUE);
+		for (int round = 0; round < 3; round++) {
+			for (long id = 1; id <= 1_000; id++) board.add(id * 1_024, "A" + id, null, null, (int) (id % 7) + 1);
+		}
+
+		List<ScorerEntry> all = board.top(Integer.MAX_VALUE);
+		assertEquals(1_000, all.size());
+		assertEquals(21, all.get(0).goals());
+		assertEquals(3, all.get(all.size() - 1).goals());
+		assertEquals(3, board.totalsAfter(List.of(new LeaderboardService.Goal(7 * 1_024, null, null, null, 0))).get(0).getGoals());
+		assertEquals(1, board.totalsAfter(List.of(new LeaderboardService.Goal(5, null, null, null, 1))).get(0).getGoals());
+	}
+
+	@Test
+	void totalsAfterAccumulatesWithoutChangingTheBoard() {
+		LeaderboardService.Board board = new LeaderboardService.Board(LEAGUE);
+		board.add(7, "Artilheiro", null, "Time", 3);
+
+		List<ScorerTotal> totals = board.totalsAfter(List.of(
+				new LeaderboardService.Goal(7, null, null, null, 1),
+				new LeaderboardService.Goal(9, "Novo", null, "Outro", 1),
+				new LeaderboardService.Goal(7, null, null, null, 1)));
+
+		assertEquals(2, totals.size());
+		assertEquals(5, totals.get(0).getGoals());
+		assertEquals("Artilheiro", totals.get(0).getName());
+		assertEquals(1, totals.get(1).getGoals());
+		assertEquals(List.of(new ScorerEntry(7, "Artilheiro", null, "Time", 3)), board.top(10));
+	}
+
+}
@@ -0,0 +1,128 @@
+package com.w3labs.tvlabs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ProxyCacheTests {
+
+	private static final String URL = "https://site.api.espn.com/apis/site/v2/sports/soccer/bra.1/scoreboard";
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void ttlRulesDecideHowLongAnEntryStaysFresh() {
+		ProxyCache cache = new ProxyCache(1 << 20, Duration.ZERO, Duration.ZERO,
+				List.of("site.api.espn.com/scoreboard=1h"));
+
+		get(cache, URL);
+		get(cache, URL);
+		assertEquals(1, loads.get());
+
+		// Fora da regra vale o TTL padrão (zero): toda chamada vai ao upstream
+		get(cache, "https://site.api.espn.com/apis/site/v2/sports/soccer/bra.1/teams");
+		get(cache, "https://site.api.espn.com/apis/site/v2/sports/soccer/bra.1/teams");
+		assertEquals(3, loads.get());
+	}
+
+	@Test
+	void equivalentUrlsShareTheEntry() {
+		ProxyCache cache = new ProxyCache(1 << 20, Duration.ofHours(1), Duration.ZERO, List.of());
+
+		get(cache, "HTTPS://Site.API.espn.com:443/x?b=2&a=1");
+		get(cache, "https://site.api.espn.com/x?a=1&b=2");
+		assertEquals(1, loads.get());
+		assertEquals("https://site.api.espn.com/x?a=1&b=2", ProxyCache.normalize("HTTPS://Site.API.espn.com:443/x?b=2&a=1"));
+	}
+
+	@Test
+	void concurrentMissesShareOneUpstreamCall() throws Exception {
+		ProxyCache cache = new ProxyCache(1 << 20, Duration.ofHours(1), Duration.ZERO, List.of());
+		CountDownLatch release = new CountDownLatch(1);
+		ProxyPayload payload = payload("placar");
+
+		CompletableFuture<ProxyPayload> leader = CompletableFuture.supplyAsync(() -> cache.get(URL, "identity", () -> {
+			loads.incrementAndGet();
+			await(release);
+			return payload;
+		}));
+		while (loads.get() == 0) Thread.onSpinWait();
+		CompletableFuture<ProxyPayload> follower = CompletableFuture.supplyAsync(() -> get(cache, URL));
+		while ((long) cache.stats().get("coalesced") == 0) Thread.onSpinWait();
+		release.countDown();
+
+		assertSame(payload, leader.get(5, TimeUnit.SECONDS));
+		assertSame(payload, follower.get(5, TimeUnit.SECONDS));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void staleEntryIsServedWhileOneRevalidationRuns() throws Exception {
+		ProxyCache cache = new ProxyCache(1 << 20, Duration.ZERO, Duration.ofHours(1), List.of());
+		ProxyPayload old = payload("antigo");
+		ProxyPayload fresh = payload("novo");
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch revalidated = new CountDownLatch(1);
+
+		cache.get(URL, "identity", () -> old);
+		ProxyPayload served = cache.get(URL, "identity", () -> {
+			loads.incrementAndGet();
+			await(release);
+			revalidated.countDown();
+			return fresh;
+		});
+		// Enquanto a atualização está presa, outras chamadas seguem com a cópia antiga sem disparar outra
+		ProxyPayload again = get(cache, URL);
+		while (loads.get() == 0) Thread.onSpinWait();
+		release.countDown();
+
+		assertSame(old, served);
+		assertSame(old, again);
+		assertEquals(1, loads.get());
+		revalidated.await(5, TimeUnit.SECONDS);
+		while (cache.get(URL, "identity", () -> old) != fresh) Thread.onSpinWait();
+	}
+
+	@Test
+	void failedRevalidationKeepsTheStaleCopy() throws Exception {
+		ProxyCache cache = new ProxyCache(1 << 20, Duration.ZERO, Duration.ofHours(1), List.of());
+		ProxyPayload old = payload("antigo");
+
+		cache.get(URL, "identity", () -> old);
+		assertSame(old, cache.get(URL, "identity", () -> {
+			throw new IllegalStateException("upstream fora");
+		}));
+		while ((long) cache.stats().get("revalidation_failures") == 0) Thread.onSpinWait();
+
+		assertSame(old, get(cache, URL));
+	}
+
+	private ProxyPayload get(ProxyCache cache, String url) {
+		return cache.get(url, "identity", () -> {
+			loads.incrementAndGet();
+			return payload(url);
+		});
+	}
+
+	private static ProxyPayload payload(String body) {
+		return new ProxyPayload(body.getBytes(StandardCharsets.UTF_8), "application/json", null, null, null);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.w3labs.tvlabs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import tools.jackson.databind.json.JsonMapper;
+
+class ResponseBodyCacheTests {
+
+	private final ResponseBodyCache cache = new ResponseBodyCache(JsonMapper.builder().build());
+	private final AtomicInteger serialized = new AtomicInteger();
+
+	@Test
+	void newKeysEvictTheLeastRecentlyUsed() {
+		get("quente");
+		for (int i = 0; i < 2_000; i++) {
+			get("cursor-" + i);
+			get("quente");
+		}
+		int before = serialized.get();
+
+		get("quente");
+		get("cursor-1999");
+		assertEquals(before, serialized.get());
+
+		get("cursor-0");
+		assertEquals(before + 1, serialized.get());
+		assertEquals(1024, cache.stats().get("entries"));
+	}
+
+	@Test
+	void bumpInvalidatesTheGroup() {
+		get("lista");
+		get("lista");
+		cache.bump("channels");
+		get("lista");
+
+		assertEquals(2, serialized.get());
+	}
+
+	private void get(String key) {
+		cache.json("channels", key, () -> {
+			serialized.incrementAndGet();
+			return key;
+		}, null, null);
+	}
+
+}
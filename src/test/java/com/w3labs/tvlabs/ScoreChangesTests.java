@@ -0,0 +1,100 @@
+package com.w3labs.tvlabs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+class ScoreChangesTests {
+
+	private static final League BRA = new League("soccer", "brasileirao", "bra.1", "Brasileirão", "Futebol", null, null, null, null);
+
+	private final LiveScoreStore store = new LiveScoreStore(mock(ApplicationEventPublisher.class));
+	private final LeagueRegistry registry = mock(LeagueRegistry.class);
+	private final ApiController api = new ApiController(null, null, mock(ScoreService.class), null, null, null, null, null, null,
+			registry, store, null, 50, 200);
+
+	ScoreChangesTests() {
+		when(registry.find(BRA.id())).thenReturn(Optional.of(BRA));
+	}
+
+	@Test
+	void eachGameKeepsTheVersionOfItsLastChange() {
+		store.update(BRA, List.of(game("1", "0", "0"), game("2", "0", "0")));
+		store.update(BRA, List.of(game("1", "1", "0"), game("2", "0", "0")));
+		store.update(BRA, List.of(game("1", "1", "0"), game("2", "0", "0")));
+
+		LeagueScores scores = store.get(BRA.id()).orElseThrow();
+		// O primeiro snapshot já é a versão 1; a terceira leitura, igual à segunda, não muda nada
+		assertEquals(2, scores.version());
+		assertEquals(Map.of("1", 2L, "2", 1L), scores.changedAt());
+		assertEquals(List.of("1", "2"), ids(scores.changesSince(0)));
+		assertEquals(List.of("1"), ids(scores.changesSince(1)));
+		assertEquals(List.of(), scores.changesSince(2));
+	}
+
+	@Test
+	void unchangedCursorAnswersNoContent() {
+		store.update(BRA, List.of(game("1", "0", "0")));
+		store.update(BRA, List.of(game("1", "1", "0")));
+
+		ResponseEntity<ScoreChanges> changed = api.getScoreChanges(BRA.id(), 1);
+		assertEquals(HttpStatus.OK, changed.getStatusCode());
+		assertFalse(changed.getBody().reset());
+		assertEquals(2, changed.getBody().version());
+		assertEquals(List.of("1"), ids(changed.getBody().events()));
+
+		assertEquals(HttpStatus.NO_CONTENT, api.getScoreChanges(BRA.id(), 2).getStatusCode());
+	}
+
+	@Test
+	void cursorAheadOfTheServerGetsTheWholeBoard() {
+		store.update(BRA, List.of(game("1", "0", "0")));
+
+		// Ex.: o servidor reiniciou e a versão voltou a zero
+		ResponseEntity<ScoreChanges> reset = api.getScoreChanges(BRA.id(), 42);
+		assertTrue(reset.getBody().reset());
+		assertEquals(List.of("1"), ids(reset.getBody().events()));
+	}
+
+	@Test
+	void dayRolloverInvalidatesOlderCursors() {
+		store.update(BRA, List.of(game("1", "2", "1"), game("2", "0", "0")));
+		store.update(BRA, List.of(game("3", "0", "0")));
+
+		LeagueScores scores = store.get(BRA.id()).orElseThrow();
+		assertEquals(2, scores.resetVersion());
+		assertNull(scores.changesSince(1));
+
+		ResponseEntity<ScoreChanges> reset = api.getScoreChanges(BRA.id(), 1);
+		assertTrue(reset.getBody().reset());
+		assertEquals(List.of("3"), ids(reset.getBody().events()));
+		assertEquals(HttpStatus.NO_CONTENT, api.getScoreChanges(BRA.id(), 2).getStatusCode());
+	}
+
+	@Test
+	void leagueWithoutSnapshotAnswersNoContent() {
+		assertEquals(HttpStatus.NO_CONTENT, api.getScoreChanges(BRA.id(), 0).getStatusCode());
+	}
+
+	private static EspnGame game(String id, String home, String away) {
+		return new EspnGame(id, "Jogo " + id, null, "2025-08-10T19:00Z", "in", false, null, "45'", 1,
+				new EspnSide("10", "Casa", "CAS", null, home), new EspnSide("20", "Fora", "FOR", null, away));
+	}
+
+	private static List<String> ids(List<ScoreLine> lines) {
+		return lines.stream().map(ScoreLine::id).toList();
+	}
+
+}
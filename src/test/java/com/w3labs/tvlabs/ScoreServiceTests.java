@@ -0,0 +1,46 @@
+package com.w3labs.tvlabs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+class ScoreServiceTests {
+
+	private static final League NBA = new League("basketball", "nba", "nba", "NBA", "Basquete", null, null, null, null);
+
+	@Test
+	void unexpectedThrowableReleasesTheLeague() throws Exception {
+		ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+		doThrow(new Error("listener quebrado")).doNothing().when(events).publishEvent(any(Object.class));
+		ScoreService service = new ScoreService(null, mock(OutboundHttp.class), null, mock(LeagueRegistry.class), null, null,
+				null, events, 4, Duration.ofSeconds(30), "http://localhost");
+
+		CompletableFuture<LeagueSyncResult> first = service.syncAsync(NBA);
+		ExecutionException failed = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+		assertEquals("listener quebrado", failed.getCause().getMessage());
+
+		// A liga não fica presa no futuro morto: o próximo sync roda de novo
+		CompletableFuture<LeagueSyncResult> second = service.syncAsync(NBA);
+		assertNotSame(first, second);
+		assertTrue(second.get(5, TimeUnit.SECONDS).error() != null);
+
+		// syncLeagues não trava nem propaga a falha de uma liga
+		doThrow(new Error("listener quebrado")).when(events).publishEvent(any(Object.class));
+		service.syncLeagues(List.of(NBA));
+		service.shutdown();
+	}
+
+}
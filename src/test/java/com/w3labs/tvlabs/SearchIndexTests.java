@@ -0,0 +1,95 @@
+package com.w3labs.tvlabs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SearchIndexTests {
+
+	private final SearchIndex index = new SearchIndex(null);
+
+	@Test
+	void normalizesAccentsCaseAndPunctuation() {
+		assertEquals("documentarios series", SearchIndex.normalize("  Documentários & Séries! "));
+		assertEquals("", SearchIndex.normalize(null));
+	}
+
+	@Test
+	void keepsSubstringSemanticsOfLike() {
+		index.onEventsChanged(new SportEventsChanged(List.of(
+				event("1", "Flamengo vs Palmeiras", "Futebol"),
+				event("2", "Lakers vs Celtics", "Basquete"),
+				event("3", "Grêmio vs Flamengo", "Futebol"))));
+
+		assertEquals(List.of("1", "3"), ids(index.searchEvents("mengo", 10, 0)));
+		assertEquals(List.of("2"), ids(index.searchEvents("CELT", 10, 0)));
+		// Todos os trigramas aparecem em algum evento, mas a sequência inteira em nenhum
+		assertEquals(List.of(), ids(index.searchEvents("flamers", 10, 0)));
+		assertEquals(List.of("3"), ids(index.searchEvents("gremio", 10, 0)));
+	}
+
+	@Test
+	void shortQueriesScanEveryDocument() {
+		index.onEventsChanged(new SportEventsChanged(List.of(
+				event("1", "Flamengo vs Palmeiras", "Futebol"),
+				event("2", "Lakers vs Celtics", "Basquete"))));
+
+		assertEquals(List.of("1", "2"), ids(index.searchEvents("vs", 10, 0)));
+	}
+
+	@Test
+	void ranksByFieldWeightAndMatchKind() {
+		index.onEventsChanged(new SportEventsChanged(List.of(
+				event("cat", "Final da Copa", "Futebol"),
+				event("meio", "Superfutebol", "Show"),
+				event("inicio", "Futebol de Areia", "Show"))));
+
+		// Categoria exata (2 x 4) > início de palavra no título (3 x 2) > substring no título (3 x 1)
+		assertEquals(List.of("cat", "inicio", "meio"), ids(index.searchEvents("futebol", 10, 0)));
+	}
+
+	@Test
+	void replacedAndArchivedEventsLeaveTheIndex() {
+		index.onEventsChanged(new SportEventsChanged(List.of(event("1", "Flamengo vs Palmeiras", "Futebol"))));
+		index.onEventsChanged(new SportEventsChanged(List.of(event("1", "Vasco vs Botafogo", "Futebol"))));
+
+		assertEquals(List.of(), ids(index.searchEvents("palmeiras", 10, 0)));
+		assertEquals(List.of("1"), ids(index.searchEvents("vasco", 10, 0)));
+
+		index.onEventsArchived(new SportEventsArchived(List.of("1")));
+		assertEquals(List.of(), ids(index.searchEvents("vasco", 10, 0)));
+	}
+
+	@Test
+	void pagesKeepTheTotal() {
+		index.onEventsChanged(new SportEventsChanged(List.of(
+				event("a", "Jogo A", "Futebol"),
+				event("b", "Jogo B", "Futebol"),
+				event("c", "Jogo C", "Futebol"))));
+
+		SearchPage<SportEvent> page = index.searchEvents("jogo", 2, 1);
+		assertEquals(List.of("b", "c"), ids(page));
+		assertEquals(3, page.total());
+	}
+
+	@Test
+	void blankQueryMatchesEverythingLikeTheOldLike() {
+		index.onEventsChanged(new SportEventsChanged(List.of(
+				event("2", "Lakers vs Celtics", "Basquete"),
+				event("1", "Flamengo vs Palmeiras", "Futebol"))));
+
+		assertEquals(List.of("1", "2"), ids(index.searchEvents("", Integer.MAX_VALUE, 0)));
+		assertEquals(List.of("2"), ids(index.searchEvents(" ", Integer.MAX_VALUE, 1)));
+	}
+
+	private static SportEvent event(String id, String title, String category) {
+		return new SportEvent(id, title, null, category, null, null, null, "upcoming");
+	}
+
+	private static List<String> ids(SearchPage<SportEvent> page) {
+		return page.items().stream().map(SportEvent::getId).toList();
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.w3labs.tvlabs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class SuggestIndexTests {
+
+	@Test
+	void matchesFullTextAndEveryWordStart() {
+		SuggestIndex.CompactTrie trie = trie("Flamengo vs Palmeiras", "Palmeiras", "Fluminense");
+
+		assertEquals(List.of("Flamengo vs Palmeiras", "Fluminense"), texts(trie.lookup("f", 10)));
+		assertEquals(List.of("Flamengo vs Palmeiras", "Palmeiras"), texts(trie.lookup("palm", 10)));
+		assertEquals(List.of("Flamengo vs Palmeiras"), texts(trie.lookup("vs pal", 10)));
+		assertEquals(List.of(), texts(trie.lookup("meiras", 10)));
+	}
+
+	@Test
+	void prefixEndingInsideACompressedLabelStillMatches() {
+		SuggestIndex.CompactTrie trie = trie("Corinthians", "Coritiba");
+
+		assertEquals(List.of("Corinthians", "Coritiba"), texts(trie.lookup("cori", 10)));
+		assertEquals(List.of("Corinthians"), texts(trie.lookup("corin", 10)));
+		assertEquals(List.of(), texts(trie.lookup("corix", 10)));
+		assertEquals(List.of(), texts(trie.lookup("corinthians fc", 10)));
+	}
+
+	@Test
+	void keepsOnlyTheTopKPerNode() {
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < 15; i++) names.add("Canal " + (char) ('a' + i));
+		SuggestIndex.CompactTrie trie = trie(names.toArray(String[]::new));
+
+		assertEquals(10, trie.lookup("canal", 50).size());
+		assertEquals(names.subList(0, 3), texts(trie.lookup("canal", 3)));
+		assertEquals(List.of(), SuggestIndex.CompactTrie.EMPTY.lookup("x", 10));
+	}
+
+	@Test
+	void ranksByTypeWeightAndSearches() {
+		ChannelCatalog catalog = mock(ChannelCatalog.class);
+		SportEventRepository eventRepo = mock(SportEventRepository.class);
+		LeagueRegistry leagues = mock(LeagueRegistry.class);
+		TeamDirectory teams = mock(TeamDirectory.class);
+		Channel channel = new Channel("sportv", "SporTV", null, "Esportes", null, null, true);
+		when(catalog.snapshot()).thenReturn(new ChannelCatalog.Snapshot(1, Instant.now(), List.of(channel), Map.of(), Map.of(), List.of()));
+		when(teams.all()).thenReturn(List.of(new Team("Sport Recife", null, "soccer/bra.1")));
+		when(eventRepo.findTitlesAndStatus()).thenReturn(List.<Object[]>of(
+				new Object[] { "Sport x Náutico", "upcoming" },
+				new Object[] { "Sporting x Benfica", "live" }));
+		SuggestIndex index = new SuggestIndex(catalog, eventRepo, leagues, teams);
+
+		index.rebuild();
+		// Evento ao vivo (60) > canal (50) > time (30) > evento futuro (20)
+		assertEquals(List.of("Sporting x Benfica", "SporTV", "Sport Recife", "Sport x Náutico"), texts(index.suggest("spor", 10)));
+
+		for (int i = 0; i < 45; i++) index.recordSearch("sport x nautico");
+		index.rebuild();
+		assertEquals("Sport x Náutico", index.suggest("Spór", 1).get(0).text());
+	}
+
+	private static SuggestIndex.CompactTrie trie(String... texts) {
+		List<SuggestIndex.Term> terms = new ArrayList<>();
+		for (String text : texts) terms.add(new SuggestIndex.Term(text, "channel"));
+		return SuggestIndex.CompactTrie.build(terms);
+	}
+
+	private static List<String> texts(List<Suggestion> suggestions) {
+		return suggestions.stream().map(Suggestion::text).toList();
+	}
+
+}